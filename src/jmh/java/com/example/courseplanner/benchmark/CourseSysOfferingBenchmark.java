@@ -0,0 +1,131 @@
+package com.example.courseplanner.benchmark;
+
+import com.example.courseplanner.model.CourseSysOffering;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Enrollment parsing: the regex version CourseSysOffering used to run on
+ * every getter call vs. the digit scanner + cached fields it uses now.
+ *
+ * Each benchmark handles one department-sized set of sections and reads
+ * the counts the way the enrollment-history / offerings paths do
+ * (enrolled, capacity, load percent).
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=CourseSysOfferingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseSysOfferingBenchmark {
+
+    private static final int SECTIONS = 200;
+
+    private String[] enrolledRaw;
+    private String[] capacityRaw;
+    private CourseSysOffering[] offerings;
+
+    @Setup
+    public void setUp() {
+        enrolledRaw = new String[SECTIONS];
+        capacityRaw = new String[SECTIONS];
+        offerings = new CourseSysOffering[SECTIONS];
+
+        for (int i = 0; i < SECTIONS; i++) {
+            int enrolled = 20 + (i * 37) % 380;
+            int capacity = 40 + (i * 53) % 360;
+            enrolledRaw[i] = i % 4 == 0 ? enrolled + " (+" + (i % 31) + ")" : Integer.toString(enrolled);
+            capacityRaw[i] = Integer.toString(capacity);
+
+            offerings[i] = new CourseSysOffering();
+            offerings[i].setEnrollmentText(enrolledRaw[i], capacityRaw[i]);
+        }
+    }
+
+    /**
+     * Before: strings kept on the offering, regex compiled and run per getter
+     * (getLoadPercent re-parsed both strings).
+     */
+    @Benchmark
+    public void regexPerCall(Blackhole bh) {
+        for (int i = 0; i < SECTIONS; i++) {
+            int enrolled = legacyEnrolledCount(enrolledRaw[i]);
+            int capacity = legacyCapacityCount(capacityRaw[i]);
+            bh.consume(enrolled);
+            bh.consume(capacity);
+            bh.consume(legacyLoadPercent(enrolledRaw[i], capacityRaw[i]));
+        }
+    }
+
+    /**
+     * After, ingest cost: scan the strings once into the offering's fields.
+     */
+    @Benchmark
+    public void scanOnce(Blackhole bh) {
+        for (int i = 0; i < SECTIONS; i++) {
+            CourseSysOffering offering = new CourseSysOffering();
+            offering.setEnrollmentText(enrolledRaw[i], capacityRaw[i]);
+            bh.consume(offering);
+        }
+    }
+
+    /**
+     * After, read cost: counts are plain field reads.
+     */
+    @Benchmark
+    public void cachedReads(Blackhole bh) {
+        for (CourseSysOffering offering : offerings) {
+            bh.consume(offering.getEnrolledCount());
+            bh.consume(offering.getCapacityCount());
+            bh.consume(offering.getLoadPercent());
+        }
+    }
+
+    // -----------------------------
+    // Previous implementation (baseline)
+    // -----------------------------
+
+    private static int legacyEnrolledCount(String raw) {
+        if (raw == null) return 0;
+
+        Pattern p = Pattern.compile("(\\d+)(?:\\s*\\(\\+(\\d+)\\))?");
+        Matcher m = p.matcher(raw.trim());
+
+        if (!m.matches()) return 0;
+
+        int base = Integer.parseInt(m.group(1));
+        int waitlist = (m.group(2) != null) ? Integer.parseInt(m.group(2)) : 0;
+
+        return base + waitlist;
+    }
+
+    private static int legacyCapacityCount(String raw) {
+        if (raw == null) return 0;
+
+        Pattern p = Pattern.compile("(\\d+)");
+        Matcher m = p.matcher(raw.trim());
+
+        if (!m.find()) return 0;
+
+        return Integer.parseInt(m.group(1));
+    }
+
+    private static long legacyLoadPercent(String enrolledRaw, String capacityRaw) {
+        int enrolled = legacyEnrolledCount(enrolledRaw);
+        int capacity = legacyCapacityCount(capacityRaw);
+
+        if (capacity <= 0) return 0L;
+
+        return Math.round((enrolled * 100.0) / capacity);
+    }
+}
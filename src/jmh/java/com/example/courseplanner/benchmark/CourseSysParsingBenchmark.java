@@ -0,0 +1,94 @@
+package com.example.courseplanner.benchmark;
+
+import com.example.courseplanner.service.CourseSysResponseParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CourseSys browse response → offerings.
+ *
+ * - streaming: CourseSysResponseParser, what CourseSysClient runs on
+ *   every upstream response before grouping rows into results
+ * - mapThenSplit: the previous path (whole body into a Map, rows as
+ *   List<List<String>>, split()/substring() per cell), as a baseline
+ *
+ * Input files are in src/jmh/resources/coursys/. To benchmark against
+ * a fresh recording, save a response next to them and add its name to
+ * the @Param list, e.g.
+ *
+ *   curl 'https://coursys.sfu.ca/browse/?subject%5B%5D=CMPT&semester%5B%5D=1257&tabledata=yes' \
+ *     > src/jmh/resources/coursys/cmpt-department-1257.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseSysParsingBenchmark {
+
+    @Param({
+        "cmpt-276-1257.json",           // one course, one semester
+        "cmpt-department-1257.json",    // department-wide
+        "cmpt-batch-6-semesters.json"   // batched call: 4 courses x 6 semesters
+    })
+    public String response;
+
+    private byte[] body;
+    private ObjectMapper objectMapper;
+    private CourseSysResponseParser parser;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/coursys/" + response)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark input /coursys/" + response);
+            }
+            body = in.readAllBytes();
+        }
+        objectMapper = new ObjectMapper();
+        parser = new CourseSysResponseParser(objectMapper);
+    }
+
+    @Benchmark
+    public List<CourseSysResponseParser.Row> streaming() throws IOException {
+        return parser.parse(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void mapThenSplit(Blackhole bh) throws IOException {
+        Map<String, Object> parsed = objectMapper.readValue(body, Map.class);
+        List<List<String>> rows = (List<List<String>>) parsed.get("data");
+
+        for (List<String> row : rows) {
+            String link = row.get(1);
+            String linkText = link.substring(link.indexOf('>') + 1, link.indexOf("</")).trim();
+            String[] tokens = linkText.split("\\s+");
+
+            int hrefStart = link.indexOf("href=\"") + 6;
+            String[] enrollment = row.get(3).split("/");
+
+            bh.consume(tokens[tokens.length - 1]);                          // section
+            bh.consume(tokens[1]);                                          // course number
+            bh.consume(link.substring(hrefStart, link.indexOf('"', hrefStart)));  // info URL
+            bh.consume(enrollment[0].trim());                               // "115 (+31)"
+            bh.consume(enrollment[1].trim());                               // "100"
+            bh.consume(row.get(2));
+            bh.consume(row.get(4));
+            bh.consume(row.get(5));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.courseplanner.benchmark;
+
+import com.example.courseplanner.utils.GradeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CourseDiggers grade distribution (JSONB map) → letter-grade counts,
+ * as done by GET /api/graph/grade-distribution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GradeDistributionBenchmark {
+
+    private Map<String, Object> raw;
+
+    @Setup
+    public void setUp() {
+        // Shape of course_digger_stats.grade_distribution
+        raw = new LinkedHashMap<>();
+        String[] grades = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F", "FD", "N", "P", "W"};
+        for (int i = 0; i < grades.length; i++) {
+            raw.put(grades[i], 5 + (i * 7) % 40);
+        }
+        raw.put("Median Grade", "B+");
+        raw.put("Fail Rate", 4.7);
+    }
+
+    @Benchmark
+    public Map<String, Long> letterGradeCounts() {
+        return GradeUtil.letterGradeCounts(raw);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.courseplanner.benchmark;
+
+import com.example.courseplanner.dto.ApiCourseOfferingDTO;
+import com.example.courseplanner.dto.ApiOfferingDetailDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the offering detail page response
+ * (GET /api/departments/{deptId}/courses/{courseId}/offerings/{semesterCode}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OfferingDetailSerializationBenchmark {
+
+    @Param({"4", "30"})
+    public int sections;
+
+    private ObjectMapper objectMapper;
+    private ApiOfferingDetailDTO detail;
+
+    @Setup
+    public void setUp() {
+        // Same modules Spring Boot registers (java.time for fetchedAt)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        Instant fetchedAt = Instant.parse("2025-09-02T18:04:11Z");
+        List<ApiCourseOfferingDTO> sectionDtos = new ArrayList<>();
+        for (int i = 0; i < sections; i++) {
+            ApiCourseOfferingDTO dto = new ApiCourseOfferingDTO(
+                    "D" + (100 * (i + 1)),
+                    "/browse/info/2025fa-cmpt-276-d" + (100 * (i + 1)),
+                    "fall", 2025L, 1257L, false,
+                    i % 2 == 0 ? "Burnaby" : "Surrey",
+                    "Bobby Chan",
+                    i % 3 == 0 ? "115 (+31)" : "96",
+                    "100",
+                    i % 3 == 0 ? 146L : 96L);
+            dto.setFetchedAt(fetchedAt);
+            sectionDtos.add(dto);
+        }
+
+        Map<String, Long> grades = new LinkedHashMap<>();
+        String[] letters = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F"};
+        for (int i = 0; i < letters.length; i++) {
+            grades.put(letters[i], 10L + i * 3);
+        }
+
+        detail = new ApiOfferingDetailDTO(
+                1L, 276L, "CMPT", "276", "Introduction to Software Engineering",
+                2025, "fall", "Burnaby",
+                "B+", 2.52, grades,
+                "An overview of various techniques used for software development and software project management.",
+                "CMPT 225, with a minimum grade of C-.",
+                null, 3, "UGRD", "Q",
+                sectionDtos,
+                "https://www.sfu.ca/outlines.html?2025/fall/cmpt/276/d100");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.courseplanner.benchmark;
+
+import com.example.courseplanner.utils.SemesterUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semester math used on every browse / graph request.
+ *
+ * Inputs are non-final fields so the JIT can't constant-fold them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SemesterUtilBenchmark {
+
+    public long year = 2026;
+    public String term = "Spring";
+    public long semesterCode = 1257;
+
+    @Benchmark
+    public SemesterUtil.Prev previous() {
+        return SemesterUtil.previous(year, term);
+    }
+
+    @Benchmark
+    public long buildSemesterCode() {
+        return SemesterUtil.buildSemesterCode(year, term);
+    }
+
+    @Benchmark
+    public SemesterUtil.DecodedSemester decodeSemesterCode() {
+        return SemesterUtil.decodeSemesterCode(semesterCode);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.courseplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browse-table payloads for the upstream stand-in.
+ *
+ * A request is answered per course × semester:
+ *
+ * 1. A recorded payload named <dept>-<number>-<semester>.json
+ *    (e.g. cmpt-276-1257.json), from the recordings directory or
+ *    the classpath under recordings/coursys/.
+ *
+ * 2. Otherwise, generated rows in CourseSys's format. The number
+ *    of sections and their enrollment come from a hash of the
+ *    key, so the same key always gets the same table. About one
+ *    key in ten has no sections (course not offered that term).
+ *
+ * Rows for all keys are concatenated into one {"data": [...]}
+ * response, the way a batched CourseSys call answers.
+ */
+class CourseSysPayloads {
+
+    private static final String[] INSTRUCTORS = {
+        "Bobby Chan", "Hazra Imran", "Victor Cheung", "Diana Cukierman", "Brian Fraser", "Angelica Lim"
+    };
+    private static final String[] CAMPUSES = {"Burnaby", "Surrey", "Vancouver"};
+
+    private final ObjectMapper objectMapper;
+    private final Path recordingsDir;
+
+    // Recorded rows by "<dept>-<number>-<semester>"; an empty array means "no recording"
+    private final Map<String, ArrayNode> recorded = new ConcurrentHashMap<>();
+
+    CourseSysPayloads(ObjectMapper objectMapper, Path recordingsDir) {
+        this.objectMapper = objectMapper;
+        this.recordingsDir = recordingsDir;
+    }
+
+    /**
+     * @return JSON body for a browse call
+     */
+    String browse(String dept, List<String> numbers, List<Long> semesters) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode data = body.putArray("data");
+
+        for (String number : numbers) {
+            for (Long semester : semesters) {
+                ArrayNode rows = recordedRows(dept, number, semester);
+                if (rows.isEmpty()) {
+                    generateRows(data, dept, number, semester);
+                } else {
+                    data.addAll(rows);
+                }
+            }
+        }
+
+        return objectMapper.writeValueAsString(body);
+    }
+
+    // -----------------------------
+    // Recorded
+    // -----------------------------
+
+    private ArrayNode recordedRows(String dept, String number, long semester) {
+        String name = (dept + "-" + number + "-" + semester).toLowerCase(Locale.ROOT);
+        return recorded.computeIfAbsent(name, this::loadRecording);
+    }
+
+    private ArrayNode loadRecording(String name) {
+        try {
+            if (recordingsDir != null) {
+                Path file = recordingsDir.resolve(name + ".json");
+                if (Files.isRegularFile(file)) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        return dataOf(objectMapper.readTree(in));
+                    }
+                }
+            }
+
+            try (InputStream in = getClass().getResourceAsStream("/recordings/coursys/" + name + ".json")) {
+                if (in != null) {
+                    return dataOf(objectMapper.readTree(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable recording " + name, e);
+        }
+
+        return objectMapper.createArrayNode();
+    }
+
+    private ArrayNode dataOf(JsonNode response) {
+        JsonNode data = response.get("data");
+        return data instanceof ArrayNode array ? array : objectMapper.createArrayNode();
+    }
+
+    // -----------------------------
+    // Generated
+    // -----------------------------
+
+    /**
+     * Appends rows like:
+     *   ["Fall 2025", "<a href=\"/browse/info/2025fa-cmpt-276-d100\">CMPT 276 D100</a>",
+     *    "CMPT 276", "115 (+31)/100", "Bobby Chan", "Burnaby"]
+     */
+    private void generateRows(ArrayNode data, String dept, String number, long semester) {
+        int hash = (dept.toUpperCase(Locale.ROOT) + number + semester).hashCode() & 0x7fffffff;
+        if (hash % 10 == 0) {
+            return;
+        }
+
+        String term = termLabel(semester);
+        String slugPrefix = termSlug(semester) + "-" + dept.toLowerCase(Locale.ROOT) + "-" + number + "-";
+        String courseName = dept.toUpperCase(Locale.ROOT) + " " + number;
+        int sections = 1 + hash % 4;
+
+        for (int i = 0; i < sections; i++) {
+            int h = (hash >>> i) ^ (i * 0x9E3779B9);
+            h &= 0x7fffffff;
+
+            String section = "D" + (i + 1) + "00";
+            int capacity = 40 + (h % 8) * 20;
+            int enrolled = (int) (capacity * (0.6 + (h % 50) / 100.0));
+            int waitlist = enrolled >= capacity ? h % 25 : 0;
+
+            ArrayNode row = data.addArray();
+            row.add(term);
+            row.add("<a href=\"/browse/info/" + slugPrefix + section.toLowerCase(Locale.ROOT) + "\">"
+                    + courseName + " " + section + "</a>");
+            row.add(courseName);
+            row.add((waitlist > 0 ? enrolled + " (+" + waitlist + ")" : Integer.toString(enrolled)) + "/" + capacity);
+            row.add(INSTRUCTORS[h % INSTRUCTORS.length]);
+            row.add(CAMPUSES[h % CAMPUSES.length]);
+        }
+    }
+
+    /**
+     * 1257 → "Fall 2025"
+     */
+    private static String termLabel(long semester) {
+        long year = 1900 + semester / 10;
+        return switch ((int) (semester % 10)) {
+            case 1 -> "Spring " + year;
+            case 4 -> "Summer " + year;
+            default -> "Fall " + year;
+        };
+    }
+
+    /**
+     * 1257 → "2025fa"
+     */
+    private static String termSlug(long semester) {
+        long year = 1900 + semester / 10;
+        return switch ((int) (semester % 10)) {
+            case 1 -> year + "sp";
+            case 4 -> year + "su";
+            default -> year + "fa";
+        };
+    }
+}
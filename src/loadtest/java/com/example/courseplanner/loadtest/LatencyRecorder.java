@@ -0,0 +1,59 @@
+package com.example.courseplanner.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Response times for one endpoint.
+ *
+ * Every sample is kept (a few MB for a long run) so percentiles are
+ * exact rather than bucketed; p99.9 needs that at these sample counts.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    /**
+     * Sorted samples at one point in time.
+     */
+    record Snapshot(long[] sortedNanos, long errors) {
+
+        int count() {
+            return sortedNanos.length;
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds (0 if there are no samples).
+         *
+         * @param percentile e.g. 99.9
+         */
+        double percentileMs(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+            return sortedNanos[Math.max(0, Math.min(rank, sortedNanos.length) - 1)] / 1_000_000.0;
+        }
+
+        double maxMs() {
+            return sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1] / 1_000_000.0;
+        }
+    }
+}
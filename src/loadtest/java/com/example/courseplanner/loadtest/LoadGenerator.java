@@ -0,0 +1,232 @@
+package com.example.courseplanner.loadtest;
+
+import com.example.courseplanner.loadtest.LoadTestDatabase.SeededCourse;
+import com.example.courseplanner.loadtest.WorkloadProfile.Operation;
+import com.example.courseplanner.utils.SemesterUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * =========================================================
+ * Load Generator
+ *
+ * Closed loop: `users` threads, each a simulated user that
+ * sends one request, waits for the answer (plus optional
+ * think time) and sends the next, until the deadline.
+ *
+ * Each user has its own Random (seed + user index), so the
+ * sequence of requests is the same on every run. Courses are
+ * picked with a skew towards the front of the catalog
+ * (popular courses), which is what makes caching visible:
+ *
+ *   index = courses × u^skew,  u uniform in [0, 1)
+ *
+ * skew = 1 is uniform; the default 3 sends about half the
+ * traffic to the first eighth of the courses.
+ *
+ * Signed-in users send "Authorization: Bearer loadtest-<n>";
+ * the upstream stand-in maps that to a fixed user id.
+ * =========================================================
+ */
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final WorkloadProfile profile;
+    private final List<SeededCourse> courses;
+    private final List<SeededCourse> coursesWithGrades;
+    private final List<Long> semesterCodes;
+    private final int users;
+    private final long seed;
+    private final double skew;
+
+    LoadGenerator(
+            String baseUrl,
+            WorkloadProfile profile,
+            List<SeededCourse> courses,
+            int users,
+            long seed,
+            double skew
+    ) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+        this.courses = courses;
+        this.coursesWithGrades = courses.stream().filter(SeededCourse::hasGrades).toList();
+        // Same window the offerings endpoint shows (enrolling term = Spring 2026)
+        this.semesterCodes = SemesterUtil.recentSemesters(2026, "spring", 12).stream()
+                .map(SemesterUtil.Prev::semesterCode)
+                .toList();
+        this.users = users;
+        this.seed = seed;
+        this.skew = skew;
+    }
+
+    /**
+     * Creates each user's bookmarks (profile.bookmarksPerUser() per user).
+     *
+     * @return Number of bookmarks created
+     */
+    int createBookmarks() throws IOException, InterruptedException {
+        int created = 0;
+
+        for (int user = 0; user < users; user++) {
+            Random random = new Random(seed ^ (0x5DEECE66DL * (user + 1)));
+
+            for (int i = 0; i < profile.bookmarksPerUser(); i++) {
+                SeededCourse course = pickCourse(random, courses);
+                long semesterCode = semesterCodes.get(random.nextInt(2));   // enrolling or current term
+                String body = "{\"deptId\": " + course.deptId()
+                        + ", \"courseId\": " + course.courseId()
+                        + ", \"semesterCode\": " + semesterCode
+                        + ", \"section\": \"D" + (1 + random.nextInt(3)) + "00\"}";
+
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookmarks"))
+                                .header("Authorization", "Bearer " + token(user))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+
+                // 409 = the same offering was picked twice for this user
+                if (response.statusCode() == 201) {
+                    created++;
+                } else if (response.statusCode() != 409) {
+                    throw new IOException("Creating a bookmark failed with " + response.statusCode());
+                }
+            }
+        }
+
+        return created;
+    }
+
+    /**
+     * Runs the workload until `duration` has passed.
+     *
+     * @param round Distinguishes warm-up from the measured run (different request sequences)
+     * @return Latencies per operation
+     */
+    Result run(Duration duration, int round) throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        LongAdder failures = new LongAdder();
+
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            int userIndex = user;
+            Thread thread = new Thread(
+                    () -> runUser(userIndex, round, deadline, recorders, failures),
+                    "loadtest-user-" + user);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return new Result(recorders, failures.sum(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param recorders Latencies per operation
+     * @param transportFailures Requests that got no HTTP response (connect / timeout)
+     * @param elapsedNanos Wall time of the run
+     */
+    record Result(Map<Operation, LatencyRecorder> recorders, long transportFailures, long elapsedNanos) { }
+
+    private void runUser(
+            int user,
+            int round,
+            long deadline,
+            Map<Operation, LatencyRecorder> recorders,
+            LongAdder failures
+    ) {
+        Random random = new Random(seed + user * 1_000_003L + round * 7_919L);
+        String token = token(user);
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = profile.pick(random);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path(operation, random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET();
+            if (operation.needsLogin()) {
+                request.header("Authorization", "Bearer " + token);
+            }
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                recorders.get(operation).record(System.nanoTime() - start, response.statusCode() >= 400);
+            } catch (IOException e) {
+                failures.increment();
+                recorders.get(operation).record(System.nanoTime() - start, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (profile.thinkTimeMs() > 0) {
+                try {
+                    Thread.sleep(profile.thinkTimeMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private String path(Operation operation, Random random) {
+        SeededCourse course = pickCourse(random, operation == Operation.GRADE_DISTRIBUTION ? coursesWithGrades : courses);
+
+        return switch (operation) {
+            case DEPARTMENTS -> "/api/departments";
+            case COURSES -> "/api/departments/" + course.deptId() + "/courses";
+            case OFFERINGS -> "/api/departments/" + course.deptId() + "/courses/" + course.courseId() + "/offerings";
+            case OFFERING_DETAIL -> "/api/departments/" + course.deptId() + "/courses/" + course.courseId()
+                    + "/offerings/" + semesterCodes.get(pickIndex(random, semesterCodes.size()));
+            case GRADE_DISTRIBUTION -> "/api/graph/grade-distribution?courseId=" + course.courseId();
+            case ENROLLMENT_HISTORY -> "/api/graph/enrollment-history?deptId=" + course.deptId()
+                    + "&courseId=" + course.courseId()
+                    + "&range=" + List.of("1yr", "3yr", "5yr").get(random.nextInt(3));
+            case DASHBOARD -> "/api/bookmarks/offerings";
+            case COURSE_PAGE -> "/api/departments/" + course.deptId() + "/courses/" + course.courseId()
+                    + "/page?range=" + List.of("1yr", "3yr", "5yr").get(random.nextInt(3));
+        };
+    }
+
+    private SeededCourse pickCourse(Random random, List<SeededCourse> from) {
+        return from.get(pickIndex(random, from.size()));
+    }
+
+    /**
+     * Skewed towards 0 (see class docs).
+     */
+    private int pickIndex(Random random, int size) {
+        return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), skew)));
+    }
+
+    static String token(int user) {
+        return "loadtest-" + user;
+    }
+}
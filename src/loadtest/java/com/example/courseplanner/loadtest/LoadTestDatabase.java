@@ -0,0 +1,205 @@
+package com.example.courseplanner.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * =========================================================
+ * Load-test Database
+ *
+ * A throwaway PostgreSQL (embedded binaries, no container or
+ * install needed) with the app's schema and a generated
+ * catalog:
+ *
+ *   departments × coursesPerDepartment courses
+ *   terms: Fall 2025 current, Spring 2026 enrolling
+ *   course_stats for every course
+ *   CourseDiggers grade data for about two thirds of courses
+ *
+ * Generation is seeded, so the same options always give the
+ * same catalog (and the same course ids).
+ * =========================================================
+ */
+class LoadTestDatabase implements AutoCloseable {
+
+    private static final String[] DEPARTMENT_CODES = {
+        "cmpt", "math", "macm", "stat", "phys", "chem", "bisc", "econ",
+        "bus", "psyc", "engl", "hist", "geog", "ensc", "mse", "phil"
+    };
+    private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F"};
+
+    /**
+     * One generated course (what the load generator picks from).
+     */
+    record SeededCourse(long deptId, long courseId, String deptCode, String courseNumber, boolean hasGrades) { }
+
+    private final EmbeddedPostgres postgres;
+    private final List<SeededCourse> courses = new ArrayList<>();
+
+    private LoadTestDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    /**
+     * Starts PostgreSQL, creates the schema and seeds the catalog.
+     */
+    static LoadTestDatabase start(int departments, int coursesPerDepartment, long seed)
+            throws IOException, SQLException {
+        LoadTestDatabase database = new LoadTestDatabase(EmbeddedPostgres.builder().start());
+        try (Connection connection = database.postgres.getPostgresDatabase().getConnection()) {
+            runScript(connection, "/loadtest/schema.sql");
+            database.seed(connection, Math.min(departments, DEPARTMENT_CODES.length), coursesPerDepartment, seed);
+        }
+        return database;
+    }
+
+    String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    List<SeededCourse> courses() {
+        return courses;
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+
+    // -----------------------------
+    // Schema + seed
+    // -----------------------------
+
+    private static void runScript(Connection connection, String resource) throws IOException, SQLException {
+        String script;
+        try (InputStream in = LoadTestDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private void seed(Connection connection, int departments, int coursesPerDepartment, long seed)
+            throws SQLException {
+        Random random = new Random(seed);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO terms (year, term, is_current, is_enrolling) VALUES "
+                    + "(2025, 'fall', TRUE, FALSE), (2026, 'spring', FALSE, TRUE)");
+        }
+
+        try (PreparedStatement department = connection.prepareStatement(
+                "INSERT INTO departments (dept_id, dept_code, name) VALUES (?, ?, ?)");
+             PreparedStatement course = connection.prepareStatement(
+                "INSERT INTO courses (course_id, dept_id, course_number, title, description, units, degree_level) "
+                        + "VALUES (?, ?, ?, ?, ?, 3, ?)");
+             PreparedStatement stats = connection.prepareStatement(
+                "INSERT INTO course_stats (course_id, total_enrollment, total_capacity, load_percent, offered_terms) "
+                        + "VALUES (?, ?, ?, ?, CAST(? AS jsonb))");
+             PreparedStatement diggerMap = connection.prepareStatement(
+                "INSERT INTO course_digger_map (course_digger_map_id, course_id, digger_course_id) VALUES (?, ?, ?)");
+             PreparedStatement diggerStats = connection.prepareStatement(
+                "INSERT INTO course_digger_stats (course_digger_map_id, median_grade, fail_rate, grade_distribution) "
+                        + "VALUES (?, ?, ?, CAST(? AS jsonb))")) {
+
+            long courseId = 0;
+
+            for (int d = 0; d < departments; d++) {
+                long deptId = d + 1;
+                String code = DEPARTMENT_CODES[d];
+
+                department.setLong(1, deptId);
+                department.setString(2, code);
+                department.setString(3, code.toUpperCase());
+                department.addBatch();
+
+                for (int c = 0; c < coursesPerDepartment; c++) {
+                    courseId++;
+                    // 100, 107, 114, ... (evenly spaced, unique within the department)
+                    String number = Integer.toString(100 + c * Math.max(1, 300 / Math.max(1, coursesPerDepartment)));
+                    boolean hasGrades = random.nextInt(3) != 0;
+
+                    course.setLong(1, courseId);
+                    course.setLong(2, deptId);
+                    course.setString(3, number);
+                    course.setString(4, code.toUpperCase() + " " + number + " (load test)");
+                    course.setString(5, "Generated course for load testing.");
+                    course.setString(6, "UGRD");
+                    course.addBatch();
+
+                    int capacity = 50 + random.nextInt(300);
+                    int enrolled = (int) (capacity * (0.5 + random.nextDouble() * 0.6));
+                    stats.setLong(1, courseId);
+                    stats.setInt(2, enrolled);
+                    stats.setInt(3, capacity);
+                    stats.setDouble(4, Math.round(enrolled * 10000.0 / capacity) / 100.0);
+                    stats.setString(5, "{\"2024\": [\"spring\", \"fall\"], \"2025\": [\"spring\", \"fall\"]}");
+                    stats.addBatch();
+
+                    if (hasGrades) {
+                        diggerMap.setLong(1, courseId);
+                        diggerMap.setLong(2, courseId);
+                        diggerMap.setLong(3, 10_000 + courseId);
+                        diggerMap.addBatch();
+
+                        diggerStats.setLong(1, courseId);
+                        diggerStats.setString(2, GRADES[1 + random.nextInt(4)]);
+                        diggerStats.setDouble(3, Math.round(random.nextDouble() * 1000) / 100.0);
+                        diggerStats.setString(4, gradeDistribution(random));
+                        diggerStats.addBatch();
+                    }
+
+                    courses.add(new SeededCourse(deptId, courseId, code.toUpperCase(), number, hasGrades));
+                }
+            }
+
+            department.executeBatch();
+            course.executeBatch();
+            stats.executeBatch();
+            diggerMap.executeBatch();
+            diggerStats.executeBatch();
+        }
+
+        // Explicit ids above; keep the sequences ahead of them
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval('departments_dept_id_seq', (SELECT MAX(dept_id) FROM departments))");
+            statement.execute("SELECT setval('courses_course_id_seq', (SELECT MAX(course_id) FROM courses))");
+            statement.execute("SELECT setval('course_digger_map_course_digger_map_id_seq', "
+                    + "(SELECT COALESCE(MAX(course_digger_map_id), 1) FROM course_digger_map))");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    /**
+     * Same shape as the CourseDiggers rows in production:
+     * {"A": 218, "B": 82, ..., "Fail Rate": 2.5, "Median Grade": "A-"}
+     */
+    private static String gradeDistribution(Random random) {
+        StringBuilder json = new StringBuilder("{");
+        for (String grade : GRADES) {
+            json.append('"').append(grade).append("\": ").append(random.nextInt(200)).append(", ");
+        }
+        return json.append("\"Fail Rate\": ").append(Math.round(random.nextDouble() * 1000) / 100.0)
+                .append(", \"Median Grade\": \"B+\"}")
+                .toString();
+    }
+}
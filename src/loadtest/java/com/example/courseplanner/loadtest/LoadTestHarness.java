@@ -0,0 +1,187 @@
+package com.example.courseplanner.loadtest;
+
+import com.example.courseplanner.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * =========================================================
+ * End-to-end Load Test
+ *
+ * Runs the whole app in-process against local stand-ins and
+ * drives it with a workload profile:
+ *
+ *   1. Embedded PostgreSQL with a generated catalog (LoadTestDatabase)
+ *   2. CourseSys / Supabase auth stand-in (UpstreamStubServer)
+ *   3. The app on a random port, "loadtest" profile
+ *   4. Bookmarks for every simulated user
+ *   5. Warm-up run (not measured), then the measured run
+ *   6. Report: console, build/reports/loadtest/<profile>.json,
+ *      and a comparison with loadtest/baselines/<profile>.json
+ *
+ * Usage:
+ *   ./gradlew loadTest -PloadTest.args="--profile=mixed --users=32 --duration-seconds=60"
+ *
+ * Options (defaults in brackets):
+ *   --profile=browse|course-page|course-page-aggregate|dashboard|mixed   [mixed]
+ *   --users=N                concurrent simulated users [32]
+ *   --duration-seconds=N     measured run [60]
+ *   --warmup-seconds=N       [15]
+ *   --seed=N                 catalog, workload and stand-in randomness [42]
+ *   --skew=X                 course popularity skew, 1 = uniform [3]
+ *   --bookmarks=N            per user (overrides the profile)
+ *   --think-ms=N             pause between a user's requests [0]
+ *   --departments=N --courses-per-department=N   catalog size [8, 40]
+ *   --coursys-latency-ms=N --coursys-jitter-ms=N --coursys-error-rate=X   [120, 80, 0]
+ *   --auth-latency-ms=N --auth-jitter-ms=N --auth-error-rate=X            [40, 20, 0]
+ *   --background=true        keep the live-refresh scheduler running [false]
+ *   --tolerance=X            allowed regression vs the baseline [0.2]
+ *   --save-baseline          write this run as the new baseline
+ *   --fail-on-regression     exit 1 if the baseline comparison finds regressions
+ *
+ * The same options and seed give the same catalog, bookmarks
+ * and request sequence; timings still vary with the machine,
+ * so compare baselines recorded on the same hardware.
+ * =========================================================
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        WorkloadProfile profile = WorkloadProfile.named(options.getOrDefault("profile", "mixed"));
+        if (options.containsKey("bookmarks")) {
+            profile = profile.withBookmarksPerUser(Integer.parseInt(options.get("bookmarks")));
+        }
+        if (options.containsKey("think-ms")) {
+            profile = profile.withThinkTimeMs(Long.parseLong(options.get("think-ms")));
+        }
+
+        int users = Integer.parseInt(options.getOrDefault("users", "32"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration-seconds", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup-seconds", "15"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "3"));
+        int departments = Integer.parseInt(options.getOrDefault("departments", "8"));
+        int coursesPerDepartment = Integer.parseInt(options.getOrDefault("courses-per-department", "40"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.2"));
+
+        UpstreamStubServer.Behaviour coursys = new UpstreamStubServer.Behaviour(
+                Long.parseLong(options.getOrDefault("coursys-latency-ms", "120")),
+                Long.parseLong(options.getOrDefault("coursys-jitter-ms", "80")),
+                Double.parseDouble(options.getOrDefault("coursys-error-rate", "0")));
+        UpstreamStubServer.Behaviour auth = new UpstreamStubServer.Behaviour(
+                Long.parseLong(options.getOrDefault("auth-latency-ms", "40")),
+                Long.parseLong(options.getOrDefault("auth-jitter-ms", "20")),
+                Double.parseDouble(options.getOrDefault("auth-error-rate", "0")));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", users);
+        settings.put("seed", seed);
+        settings.put("skew", skew);
+        settings.put("bookmarksPerUser", profile.bookmarksPerUser());
+        settings.put("thinkTimeMs", profile.thinkTimeMs());
+        settings.put("departments", departments);
+        settings.put("coursesPerDepartment", coursesPerDepartment);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("coursys", coursys);
+        settings.put("auth", auth);
+
+        int exitCode = 0;
+
+        try (LoadTestDatabase database = LoadTestDatabase.start(departments, coursesPerDepartment, seed)) {
+            UpstreamStubServer stub = new UpstreamStubServer(0, coursys, auth, seed, null);
+            stub.start();
+
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(Application.class)
+                    .profiles("loadtest")
+                    .run(
+                            "--server.port=0",
+                            "--spring.datasource.url=" + database.jdbcUrl(),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=postgres",
+                            "--coursesys.base-url=" + stub.baseUrl(),
+                            "--supabase.project.url=" + stub.baseUrl(),
+                            "--refresh.enabled=" + options.getOrDefault("background", "false"));
+
+            try {
+                String baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+                LoadGenerator generator = new LoadGenerator(
+                        baseUrl, profile, database.courses(), users, seed, skew);
+
+                if (profile.bookmarksPerUser() > 0) {
+                    System.out.println("Created " + generator.createBookmarks() + " bookmarks");
+                }
+
+                if (warmupSeconds > 0) {
+                    System.out.println("Warming up for " + warmupSeconds + "s ...");
+                    generator.run(Duration.ofSeconds(warmupSeconds), 0);
+                }
+
+                stub.resetCounters();
+                System.out.println("Measuring " + profile.name() + " for " + durationSeconds + "s with " + users + " users ...");
+                LoadGenerator.Result result = generator.run(Duration.ofSeconds(durationSeconds), 1);
+
+                LoadTestReport report = LoadTestReport.of(profile, settings, result, stub);
+                System.out.println();
+                System.out.print(report.summary());
+
+                Path reportFile = Path.of("build", "reports", "loadtest", profile.name() + ".json");
+                report.write(reportFile);
+                System.out.println("Report: " + reportFile);
+
+                Path baselineFile = Path.of("loadtest", "baselines", profile.name() + ".json");
+                if (Files.exists(baselineFile)) {
+                    List<String> regressions = report.compareTo(baselineFile, tolerance);
+                    if (regressions.isEmpty()) {
+                        System.out.println("No regressions vs " + baselineFile);
+                    } else {
+                        System.out.println("Regressions vs " + baselineFile + " (tolerance " + tolerance + "):");
+                        regressions.forEach(line -> System.out.println("  " + line));
+                        if (options.containsKey("fail-on-regression")) {
+                            exitCode = 1;
+                        }
+                    }
+                } else {
+                    System.out.println("No baseline at " + baselineFile + " (run with --save-baseline to record one)");
+                }
+
+                if (options.containsKey("save-baseline")) {
+                    report.write(baselineFile);
+                    System.out.println("Baseline saved: " + baselineFile);
+                }
+            } finally {
+                app.close();
+                stub.stop();
+            }
+        }
+
+        System.exit(exitCode);
+    }
+
+    /**
+     * "--users=32" → {users: 32}, "--save-baseline" → {save-baseline: ""}
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
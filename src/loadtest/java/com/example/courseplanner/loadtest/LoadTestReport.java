@@ -0,0 +1,208 @@
+package com.example.courseplanner.loadtest;
+
+import com.example.courseplanner.loadtest.WorkloadProfile.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * =========================================================
+ * Load-test Report
+ *
+ * Per endpoint: request count, errors, throughput and
+ * p50 / p99 / p99.9 / max latency. Overall: throughput and
+ * upstream amplification, i.e. CourseSys HTTP calls (and
+ * course × semester keys) and Supabase auth calls per
+ * request served.
+ *
+ * Saved as JSON so a later run can be compared against it:
+ *
+ *   {"profile": "mixed", "totalRps": 812.4,
+ *    "upstream": {"coursysCallsPerRequest": 0.031, ...},
+ *    "endpoints": {"GET /api/graph/enrollment-history":
+ *        {"count": 8120, "rps": 81.2, "p50Ms": 3.1, "p99Ms": 41.0, ...}}}
+ *
+ * compareTo(baseline) lists what got worse by more than the
+ * tolerance: p99 / p99.9 latency, throughput, error rate or
+ * upstream calls per request.
+ * =========================================================
+ */
+class LoadTestReport {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Latency differences below this are noise at these scales
+    private static final double MIN_LATENCY_DELTA_MS = 1.0;
+
+    private final Map<String, Object> root;
+
+    private LoadTestReport(Map<String, Object> root) {
+        this.root = root;
+    }
+
+    /**
+     * @param settings Options the run used (recorded so baselines are comparable)
+     */
+    static LoadTestReport of(
+            WorkloadProfile profile,
+            Map<String, Object> settings,
+            LoadGenerator.Result result,
+            UpstreamStubServer stub
+    ) {
+        double seconds = result.elapsedNanos() / 1e9;
+        long total = 0;
+        long errors = 0;
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Operation, LatencyRecorder> entry : result.recorders().entrySet()) {
+            LatencyRecorder.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.count() == 0) {
+                continue;
+            }
+            total += snapshot.count();
+            errors += snapshot.errors();
+
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("count", snapshot.count());
+            endpoint.put("errors", snapshot.errors());
+            endpoint.put("rps", round(snapshot.count() / seconds));
+            endpoint.put("p50Ms", round(snapshot.percentileMs(50)));
+            endpoint.put("p99Ms", round(snapshot.percentileMs(99)));
+            endpoint.put("p999Ms", round(snapshot.percentileMs(99.9)));
+            endpoint.put("maxMs", round(snapshot.maxMs()));
+            endpoints.put(entry.getKey().route(), endpoint);
+        }
+
+        Map<String, Object> upstream = new LinkedHashMap<>();
+        upstream.put("coursysCalls", stub.coursysCalls());
+        upstream.put("coursysKeys", stub.coursysKeys());
+        upstream.put("coursysErrors", stub.coursysErrors());
+        upstream.put("authCalls", stub.authCalls());
+        upstream.put("coursysCallsPerRequest", perRequest(stub.coursysCalls(), total));
+        upstream.put("coursysKeysPerRequest", perRequest(stub.coursysKeys(), total));
+        upstream.put("authCallsPerRequest", perRequest(stub.authCalls(), total));
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("profile", profile.name());
+        root.put("recordedAt", Instant.now().toString());
+        root.put("settings", settings);
+        root.put("durationSeconds", round(seconds));
+        root.put("totalRequests", total);
+        root.put("errors", errors);
+        root.put("transportFailures", result.transportFailures());
+        root.put("totalRps", round(total / seconds));
+        root.put("upstream", upstream);
+        root.put("endpoints", endpoints);
+        return new LoadTestReport(root);
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        JSON.writeValue(file.toFile(), root);
+    }
+
+    /**
+     * Human-readable table for the console.
+     */
+    @SuppressWarnings("unchecked")
+    String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Profile %s: %d requests in %.1fs, %.1f req/s, %d errors%n",
+                root.get("profile"), root.get("totalRequests"), root.get("durationSeconds"),
+                root.get("totalRps"), root.get("errors")));
+        out.append(String.format("%-75s %8s %8s %9s %9s %9s%n", "endpoint", "count", "rps", "p50 ms", "p99 ms", "p99.9 ms"));
+
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) root.get("endpoints");
+        endpoints.forEach((route, e) -> out.append(String.format("%-75s %8d %8.1f %9.2f %9.2f %9.2f%n",
+                route, e.get("count"), e.get("rps"), e.get("p50Ms"), e.get("p99Ms"), e.get("p999Ms"))));
+
+        Map<String, Object> upstream = (Map<String, Object>) root.get("upstream");
+        out.append(String.format("Upstream per request: CourseSys calls %.4f, CourseSys keys %.4f, auth calls %.4f%n",
+                upstream.get("coursysCallsPerRequest"), upstream.get("coursysKeysPerRequest"),
+                upstream.get("authCallsPerRequest")));
+        return out.toString();
+    }
+
+    /**
+     * @param baselineFile Earlier report for the same profile
+     * @param tolerance Allowed relative change, e.g. 0.2 for 20%
+     * @return One line per regression (empty if none)
+     */
+    List<String> compareTo(Path baselineFile, double tolerance) throws IOException {
+        JsonNode baseline = JSON.readTree(baselineFile.toFile());
+        JsonNode current = JSON.valueToTree(root);
+        List<String> regressions = new ArrayList<>();
+
+        if (!baseline.path("profile").asText().equals(current.path("profile").asText())) {
+            regressions.add("baseline is for profile '" + baseline.path("profile").asText() + "'");
+            return regressions;
+        }
+
+        lowerIsWorse(regressions, "total req/s", baseline.path("totalRps"), current.path("totalRps"), tolerance);
+        higherIsWorse(regressions, "CourseSys calls/request",
+                baseline.path("upstream").path("coursysCallsPerRequest"),
+                current.path("upstream").path("coursysCallsPerRequest"), tolerance, 0.001);
+        higherIsWorse(regressions, "auth calls/request",
+                baseline.path("upstream").path("authCallsPerRequest"),
+                current.path("upstream").path("authCallsPerRequest"), tolerance, 0.001);
+
+        baseline.path("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode before = entry.getValue();
+            JsonNode after = current.path("endpoints").path(entry.getKey());
+            if (after.isMissingNode()) {
+                return;
+            }
+            String route = entry.getKey();
+            higherIsWorse(regressions, route + " p99", before.path("p99Ms"), after.path("p99Ms"),
+                    tolerance, MIN_LATENCY_DELTA_MS);
+            higherIsWorse(regressions, route + " p99.9", before.path("p999Ms"), after.path("p999Ms"),
+                    tolerance, MIN_LATENCY_DELTA_MS);
+            higherIsWorse(regressions, route + " error rate",
+                    errorRate(before), errorRate(after), tolerance, 0.001);
+        });
+
+        return regressions;
+    }
+
+    private static JsonNode errorRate(JsonNode endpoint) {
+        long count = endpoint.path("count").asLong();
+        return JSON.getNodeFactory().numberNode(count == 0 ? 0 : endpoint.path("errors").asDouble() / count);
+    }
+
+    private static void higherIsWorse(
+            List<String> regressions, String what, JsonNode before, JsonNode after, double tolerance, double minDelta
+    ) {
+        double was = before.asDouble();
+        double now = after.asDouble();
+        if (now - was > minDelta && now > was * (1 + tolerance)) {
+            regressions.add(String.format("%s: %.4f -> %.4f", what, was, now));
+        }
+    }
+
+    private static void lowerIsWorse(
+            List<String> regressions, String what, JsonNode before, JsonNode after, double tolerance
+    ) {
+        double was = before.asDouble();
+        double now = after.asDouble();
+        if (now < was * (1 - tolerance)) {
+            regressions.add(String.format("%s: %.1f -> %.1f", what, was, now));
+        }
+    }
+
+    private static double perRequest(long calls, long requests) {
+        return requests == 0 ? 0 : Math.round(calls * 10_000.0 / requests) / 10_000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
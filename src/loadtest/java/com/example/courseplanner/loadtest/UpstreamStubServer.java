@@ -0,0 +1,335 @@
+package com.example.courseplanner.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * =========================================================
+ * Upstream Stand-in (CourseSys + Supabase Auth)
+ *
+ * A small HTTP server that answers the two upstream calls
+ * the app makes, so load tests run offline and repeatably:
+ *
+ *   GET /browse/?subject[]=CMPT&number[]=276&semester[]=1257&tabledata=yes
+ *     → recorded payload if one matches, otherwise a generated
+ *       table (see CourseSysPayloads)
+ *
+ *   GET /auth/v1/user   (Authorization: Bearer <token>)
+ *     → {"id": <uuid from token>, "email": ..., "role": "authenticated"}
+ *       Tokens starting with "invalid" get 401.
+ *
+ * Each upstream has its own latency, jitter and error rate
+ * (errors are 503s). Jitter and errors come from a seeded
+ * Random, so a run with the same settings is repeatable.
+ *
+ * Point the app at it:
+ *
+ *   coursesys.base-url=http://localhost:8089
+ *   supabase.project.url=http://localhost:8089
+ *   supabase.jwt.verification=remote
+ *
+ * (src/loadtest/resources/application-loadtest.properties)
+ *
+ * Embedded:
+ *   UpstreamStubServer stub = new UpstreamStubServer(0, coursys, auth, 42, null);
+ *   stub.start();
+ *   ... stub.port(), stub.coursysCalls() ...
+ *   stub.stop();
+ *
+ * Standalone:
+ *   ./gradlew upstreamStub -Pstub.args="--port=8089 --coursys-latency-ms=150"
+ * =========================================================
+ */
+public class UpstreamStubServer {
+
+    /**
+     * How one upstream behaves.
+     *
+     * @param latencyMs Base delay before answering
+     * @param jitterMs Extra uniform delay in [0, jitterMs)
+     * @param errorRate Fraction of calls answered with 503
+     */
+    public record Behaviour(long latencyMs, long jitterMs, double errorRate) {
+
+        public static Behaviour instant() {
+            return new Behaviour(0, 0, 0);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Behaviour coursys;
+    private final Behaviour auth;
+    private final Random random;
+    private final CourseSysPayloads payloads;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final LongAdder coursysCalls = new LongAdder();
+    private final LongAdder coursysKeys = new LongAdder();
+    private final LongAdder coursysErrors = new LongAdder();
+    private final LongAdder authCalls = new LongAdder();
+    private final LongAdder authErrors = new LongAdder();
+
+    /**
+     * @param port Port to listen on (0 picks a free one)
+     * @param coursys CourseSys behaviour
+     * @param auth Supabase auth behaviour
+     * @param seed Seed for jitter and injected errors
+     * @param recordingsDir Extra recorded payloads (may be null; classpath recordings are always used)
+     */
+    public UpstreamStubServer(int port, Behaviour coursys, Behaviour auth, long seed, Path recordingsDir)
+            throws IOException {
+        this.coursys = coursys;
+        this.auth = auth;
+        this.random = new Random(seed);
+        this.payloads = new CourseSysPayloads(objectMapper, recordingsDir);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        // Latency is simulated by sleeping, so every call needs its own thread
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/browse/", this::handleBrowse);
+        server.createContext("/auth/v1/user", this::handleAuthUser);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    // -----------------------------
+    // Counters (read by the load generator)
+    // -----------------------------
+
+    /** Browse calls received (one per CourseSys HTTP request, batched or not). */
+    public long coursysCalls() {
+        return coursysCalls.sum();
+    }
+
+    /** Course × semester combinations requested across all browse calls. */
+    public long coursysKeys() {
+        return coursysKeys.sum();
+    }
+
+    public long coursysErrors() {
+        return coursysErrors.sum();
+    }
+
+    public long authCalls() {
+        return authCalls.sum();
+    }
+
+    public long authErrors() {
+        return authErrors.sum();
+    }
+
+    public void resetCounters() {
+        coursysCalls.reset();
+        coursysKeys.reset();
+        coursysErrors.reset();
+        authCalls.reset();
+        authErrors.reset();
+    }
+
+    // -----------------------------
+    // Handlers
+    // -----------------------------
+
+    private void handleBrowse(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            coursysCalls.increment();
+            Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            String dept = first(query.get("subject[]"));
+            List<String> numbers = query.getOrDefault("number[]", List.of());
+            List<Long> semesters = query.getOrDefault("semester[]", List.of()).stream()
+                    .map(Long::parseLong)
+                    .toList();
+            coursysKeys.add((long) Math.max(1, numbers.size()) * Math.max(1, semesters.size()));
+
+            if (!delay(coursys)) {
+                coursysErrors.increment();
+                send(exchange, 503, "{\"error\": \"stub: injected failure\"}");
+                return;
+            }
+
+            if (dept == null) {
+                send(exchange, 400, "{\"error\": \"subject[] is required\"}");
+                return;
+            }
+
+            send(exchange, 200, payloads.browse(dept, numbers, semesters));
+        }
+    }
+
+    private void handleAuthUser(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            authCalls.increment();
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+
+            if (!delay(auth)) {
+                authErrors.increment();
+                send(exchange, 503, "{\"msg\": \"stub: injected failure\"}");
+                return;
+            }
+
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                send(exchange, 401, "{\"msg\": \"missing token\"}");
+                return;
+            }
+
+            String token = authorization.substring(7);
+            if (token.isEmpty() || token.startsWith("invalid")) {
+                send(exchange, 401, "{\"msg\": \"invalid JWT\"}");
+                return;
+            }
+
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", userIdFor(token));
+            user.put("aud", "authenticated");
+            user.put("role", "authenticated");
+            user.put("email", token + "@loadtest.local");
+            send(exchange, 200, objectMapper.writeValueAsString(user));
+        }
+    }
+
+    /**
+     * The user id the stub reports for a token (stable across runs).
+     */
+    public static String userIdFor(String token) {
+        return UUID.nameUUIDFromBytes(token.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Sleeps for the configured latency + jitter.
+     *
+     * @return false if this call should fail
+     */
+    private boolean delay(Behaviour behaviour) {
+        long sleepMs;
+        boolean fail;
+        synchronized (random) {
+            sleepMs = behaviour.latencyMs()
+                    + (behaviour.jitterMs() > 0 ? (long) (random.nextDouble() * behaviour.jitterMs()) : 0);
+            fail = behaviour.errorRate() > 0 && random.nextDouble() < behaviour.errorRate();
+        }
+
+        if (sleepMs > 0) {
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return !fail;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * "subject%5B%5D=CMPT&number%5B%5D=276&number%5B%5D=120" → {subject[]: [CMPT], number[]: [276, 120]}
+     */
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static String first(List<String> values) {
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    // -----------------------------
+    // Standalone
+    // -----------------------------
+
+    /**
+     * Options (all optional):
+     *   --port=8089
+     *   --seed=42
+     *   --recordings=path/to/dir
+     *   --coursys-latency-ms=120 --coursys-jitter-ms=80 --coursys-error-rate=0.01
+     *   --auth-latency-ms=40     --auth-jitter-ms=20    --auth-error-rate=0
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        Behaviour coursys = new Behaviour(
+                Long.parseLong(options.getOrDefault("coursys-latency-ms", "120")),
+                Long.parseLong(options.getOrDefault("coursys-jitter-ms", "80")),
+                Double.parseDouble(options.getOrDefault("coursys-error-rate", "0")));
+        Behaviour auth = new Behaviour(
+                Long.parseLong(options.getOrDefault("auth-latency-ms", "40")),
+                Long.parseLong(options.getOrDefault("auth-jitter-ms", "20")),
+                Double.parseDouble(options.getOrDefault("auth-error-rate", "0")));
+        String recordings = options.get("recordings");
+
+        UpstreamStubServer stub = new UpstreamStubServer(
+                Integer.parseInt(options.getOrDefault("port", "8089")),
+                coursys,
+                auth,
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                recordings != null ? Path.of(recordings) : null);
+        stub.start();
+
+        System.out.println("Upstream stand-in listening on " + stub.baseUrl());
+        System.out.println("  CourseSys: " + coursys);
+        System.out.println("  Auth:      " + auth);
+
+        Thread.currentThread().join();
+    }
+}
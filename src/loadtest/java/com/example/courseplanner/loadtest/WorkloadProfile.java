@@ -0,0 +1,123 @@
+package com.example.courseplanner.loadtest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * =========================================================
+ * Workload Profiles
+ *
+ * A profile is a weighted mix of the operations a frontend
+ * user performs, plus how many bookmarks each simulated user
+ * has (the dashboard loads offerings for all of them).
+ *
+ *   browse       catalog browsing and course pages, no login
+ *   course-page  opening courses: offerings, detail, both graphs
+ *   course-page-aggregate  the same, as one /page call per course
+ *   dashboard    signed-in users reloading their bookmarks
+ *   mixed        all of the above
+ *
+ * Weights are relative; e.g. browse picks OFFERINGS 35 times
+ * in 100.
+ * =========================================================
+ */
+record WorkloadProfile(
+        String name,
+        Map<WorkloadProfile.Operation, Integer> weights,
+        int bookmarksPerUser,
+        long thinkTimeMs
+) {
+
+    /**
+     * One frontend request, named by its route (the report groups by this).
+     */
+    enum Operation {
+        DEPARTMENTS("GET /api/departments"),
+        COURSES("GET /api/departments/{deptId}/courses"),
+        OFFERINGS("GET /api/departments/{deptId}/courses/{courseId}/offerings"),
+        OFFERING_DETAIL("GET /api/departments/{deptId}/courses/{courseId}/offerings/{semesterCode}"),
+        GRADE_DISTRIBUTION("GET /api/graph/grade-distribution"),
+        ENROLLMENT_HISTORY("GET /api/graph/enrollment-history"),
+        DASHBOARD("GET /api/bookmarks/offerings"),
+        COURSE_PAGE("GET /api/departments/{deptId}/courses/{courseId}/page");
+
+        private final String route;
+
+        Operation(String route) {
+            this.route = route;
+        }
+
+        String route() {
+            return route;
+        }
+
+        boolean needsLogin() {
+            return this == DASHBOARD;
+        }
+    }
+
+    static final List<WorkloadProfile> PRESETS = List.of(
+            new WorkloadProfile("browse", weights(
+                    10, 25, 35, 20, 5, 5, 0, 0), 0, 0),
+            new WorkloadProfile("course-page", weights(
+                    0, 0, 30, 20, 25, 25, 0, 0), 0, 0),
+            new WorkloadProfile("course-page-aggregate", weights(
+                    0, 0, 0, 0, 0, 0, 0, 100), 0, 0),
+            new WorkloadProfile("dashboard", weights(
+                    0, 0, 15, 15, 0, 0, 70, 0), 10, 0),
+            new WorkloadProfile("mixed", weights(
+                    5, 15, 25, 15, 10, 10, 20, 0), 5, 0)
+    );
+
+    /**
+     * @throws IllegalArgumentException for an unknown name
+     */
+    static WorkloadProfile named(String name) {
+        return PRESETS.stream()
+                .filter(profile -> profile.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown workload profile '" + name + "' (known: "
+                                + PRESETS.stream().map(WorkloadProfile::name).toList() + ")"));
+    }
+
+    WorkloadProfile withBookmarksPerUser(int bookmarks) {
+        return new WorkloadProfile(name, weights, bookmarks, thinkTimeMs);
+    }
+
+    WorkloadProfile withThinkTimeMs(long thinkTime) {
+        return new WorkloadProfile(name, weights, bookmarksPerUser, thinkTime);
+    }
+
+    /**
+     * Picks an operation according to the weights.
+     */
+    Operation pick(Random random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    /**
+     * Weights in Operation declaration order; zero weights are left out.
+     */
+    private static Map<Operation, Integer> weights(int... perOperation) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        Operation[] operations = Operation.values();
+        for (int i = 0; i < operations.length; i++) {
+            if (perOperation[i] > 0) {
+                weights.put(operations[i], perOperation[i]);
+            }
+        }
+        return weights;
+    }
+}
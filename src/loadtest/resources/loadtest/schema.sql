@@ -0,0 +1,127 @@
+-- ============================================
+-- Load-test schema (embedded PostgreSQL)
+-- Same tables as scripts/db.txt, plus the bookmark and
+-- user preference tables, without the data dumps.
+-- Keep in step with db.txt when tables change.
+-- ============================================
+
+CREATE TABLE departments (
+    dept_id SERIAL PRIMARY KEY,
+    dept_code VARCHAR(10) NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE courses (
+    course_id SERIAL PRIMARY KEY,
+    dept_id INTEGER NOT NULL REFERENCES departments(dept_id) ON DELETE CASCADE,
+    course_number VARCHAR(10) NOT NULL,
+    title VARCHAR(500),
+    description TEXT,
+    units INTEGER,
+    degree_level VARCHAR(20),
+    prerequisites TEXT,
+    corequisites TEXT,
+    designation VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(dept_id, course_number)
+);
+
+CREATE INDEX idx_courses_dept ON courses(dept_id);
+CREATE INDEX idx_courses_number ON courses(course_number);
+CREATE INDEX idx_courses_dept_number ON courses(dept_id, course_number);
+CREATE INDEX idx_departments_code ON departments(dept_code);
+
+CREATE TABLE terms (
+    term_id SERIAL PRIMARY KEY,
+    year INTEGER NOT NULL,
+    term VARCHAR(10) NOT NULL,
+    is_current BOOLEAN DEFAULT FALSE,
+    is_enrolling BOOLEAN DEFAULT FALSE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE course_stats (
+    stats_id SERIAL PRIMARY KEY,
+    course_id INTEGER NOT NULL REFERENCES courses(course_id) ON DELETE CASCADE,
+    total_enrollment INTEGER DEFAULT 0,
+    total_capacity INTEGER DEFAULT 0,
+    load_percent DECIMAL(5,2),
+    offered_terms JSONB,
+    last_calculated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(course_id)
+);
+
+CREATE INDEX idx_stats_course ON course_stats(course_id);
+
+CREATE TABLE course_digger_map (
+    course_digger_map_id SERIAL PRIMARY KEY,
+    course_id INTEGER NOT NULL UNIQUE REFERENCES courses(course_id) ON DELETE CASCADE,
+    digger_course_id INTEGER NOT NULL UNIQUE,
+    source_school_id INTEGER NOT NULL DEFAULT 1,
+    discovered_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_verified_at TIMESTAMP
+);
+
+CREATE TABLE course_digger_stats (
+    course_digger_stats_id SERIAL PRIMARY KEY,
+    course_digger_map_id INTEGER NOT NULL REFERENCES course_digger_map(course_digger_map_id) ON DELETE CASCADE,
+    median_grade VARCHAR(10),
+    fail_rate DECIMAL(5,2),
+    grade_distribution JSONB,
+    last_fetched_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(course_digger_map_id)
+);
+
+CREATE TABLE coursys_snapshots (
+    snapshot_id BIGSERIAL PRIMARY KEY,
+    dept_code VARCHAR(10) NOT NULL,
+    course_number VARCHAR(10) NOT NULL,
+    semester_code BIGINT NOT NULL,
+    title VARCHAR(500),
+    sections JSONB,
+    fetched_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(dept_code, course_number, semester_code)
+);
+
+CREATE TABLE course_enrollment_history (
+    history_id BIGSERIAL PRIMARY KEY,
+    course_id INTEGER NOT NULL REFERENCES courses(course_id) ON DELETE CASCADE,
+    semester_code BIGINT NOT NULL,
+    total_enrolled INTEGER NOT NULL DEFAULT 0,
+    total_capacity INTEGER NOT NULL DEFAULT 0,
+    load_percent DOUBLE PRECISION NOT NULL DEFAULT 0,
+    section_count INTEGER NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(course_id, semester_code)
+);
+
+CREATE TABLE crawler_checkpoints (
+    crawler_name VARCHAR(50) PRIMARY KEY,
+    last_course_id BIGINT NOT NULL DEFAULT 0,
+    newest_semester_code BIGINT,
+    pass_started_at TIMESTAMP,
+    last_pass_completed_at TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE bookmarks (
+    bookmark_id BIGSERIAL PRIMARY KEY,
+    user_id UUID NOT NULL,
+    dept_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    semester_code BIGINT NOT NULL,
+    section VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(dept_id, user_id, course_id, semester_code, section)
+);
+
+CREATE INDEX idx_bookmarks_user ON bookmarks(user_id, dept_id, course_id, semester_code, section);
+
+CREATE TABLE user_preferences (
+    user_id UUID PRIMARY KEY,
+    email_notifications_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
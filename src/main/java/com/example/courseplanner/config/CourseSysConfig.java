@@ -0,0 +1,51 @@
+package com.example.courseplanner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * =========================================================
+ * CourseSys Fetch Configuration
+ *
+ * Provides the bounded thread pool used to fan out CourseSys
+ * requests (e.g. 12 semesters for one course page) in parallel.
+ *
+ * The pool and its queue are both bounded so a burst of page
+ * views cannot spawn unlimited upstream connections. Work that
+ * doesn't fit is rejected and treated as a missing semester.
+ * =========================================================
+ */
+@Configuration
+public class CourseSysConfig {
+
+    @Bean(name = "courseSysExecutor", destroyMethod = "shutdown")
+    public ExecutorService courseSysExecutor(
+        @Value("${coursesys.fetch.pool-size:16}") int poolSize,
+        @Value("${coursesys.fetch.queue-capacity:256}") int queueCapacity
+    ) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "coursys-fetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
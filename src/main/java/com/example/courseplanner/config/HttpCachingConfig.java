@@ -0,0 +1,62 @@
+package com.example.courseplanner.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.List;
+
+/**
+ * =========================================================
+ * HTTP Caching Configuration
+ *
+ * Adds strong content-hash ETags (and 304 Not Modified on a
+ * matching If-None-Match) to the read-only endpoints whose
+ * body comes from CourseSys data:
+ *
+ * - /api/departments/{deptId}/courses/{courseId}/offerings[/{semesterCode}]
+ * - /api/graph/**
+ *
+ * Catalog endpoints set their own version ETag and are not
+ * buffered here. Cache-Control comes from HttpCachePolicy.
+ * =========================================================
+ */
+@Configuration
+public class HttpCachingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ContentEtagFilter> contentEtagFilter() {
+        FilterRegistrationBean<ContentEtagFilter> registration = new FilterRegistrationBean<>(new ContentEtagFilter(List.of(
+            "/api/departments/*/courses/*/offerings",
+            "/api/departments/*/courses/*/offerings/*",
+            "/api/departments/*/courses/*/page",
+            "/api/graph/**"
+        )));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * ShallowEtagHeaderFilter limited to a set of path patterns.
+     */
+    static class ContentEtagFilter extends ShallowEtagHeaderFilter {
+
+        private final PathMatcher pathMatcher = new AntPathMatcher();
+        private final List<String> patterns;
+
+        ContentEtagFilter(List<String> patterns) {
+            this.patterns = patterns;
+            setWriteWeakETag(false);
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return patterns.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+        }
+    }
+}
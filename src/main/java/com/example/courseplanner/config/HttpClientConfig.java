@@ -0,0 +1,115 @@
+package com.example.courseplanner.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * =========================================================
+ * Outbound HTTP Client Configuration
+ *
+ * One pooled, keep-alive HTTP client shared by every service
+ * that calls out (CourseSysClient → coursys.sfu.ca,
+ * JwtService → Supabase).
+ *
+ * - Connections (and their TLS sessions) are reused across
+ *   requests instead of a new handshake per call
+ * - Pool size is bounded in total and per host
+ * - Connect, pool-wait and response timeouts are explicit so a
+ *   slow upstream can't hold a Tomcat thread indefinitely
+ *
+ * Pool usage is published as httpcomponents.httpclient.pool.total.*
+ * gauges (leased / available / pending / max, tag httpclient=outbound).
+ * =========================================================
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+        @Value("${http.client.max-total:100}") int maxTotal,
+        @Value("${http.client.max-per-route:40}") int maxPerRoute,
+        @Value("${http.client.read-timeout-ms:5000}") long readTimeoutMs,
+        @Value("${http.client.connection-ttl-seconds:300}") long connectionTtlSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setConnectionTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+            .setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setSoKeepAlive(true)
+                .build())
+            .build();
+
+        bindPoolMetrics(connectionManager, meterRegistry);
+
+        return connectionManager;
+    }
+
+    /**
+     * Pool gauges (Micrometer's hc5 binder needs Micrometer 1.11; Boot 3.0 manages 1.10).
+     */
+    private static void bindPoolMetrics(PoolingHttpClientConnectionManager connectionManager, MeterRegistry meterRegistry) {
+        Gauge.builder("httpcomponents.httpclient.pool.total.leased", connectionManager,
+                cm -> cm.getTotalStats().getLeased())
+            .description("Connections in use")
+            .tag("httpclient", "outbound")
+            .register(meterRegistry);
+        Gauge.builder("httpcomponents.httpclient.pool.total.available", connectionManager,
+                cm -> cm.getTotalStats().getAvailable())
+            .description("Idle kept-alive connections")
+            .tag("httpclient", "outbound")
+            .register(meterRegistry);
+        Gauge.builder("httpcomponents.httpclient.pool.total.pending", connectionManager,
+                cm -> cm.getTotalStats().getPending())
+            .description("Requests waiting for a free connection")
+            .tag("httpclient", "outbound")
+            .register(meterRegistry);
+        Gauge.builder("httpcomponents.httpclient.pool.total.max", connectionManager,
+                cm -> cm.getTotalStats().getMax())
+            .description("Maximum connections in the pool")
+            .tag("httpclient", "outbound")
+            .register(meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(
+        PoolingHttpClientConnectionManager outboundConnectionManager,
+        @Value("${http.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+        @Value("${http.client.pool-timeout-ms:1000}") long poolTimeoutMs,
+        @Value("${http.client.read-timeout-ms:5000}") long readTimeoutMs,
+        @Value("${http.client.idle-evict-seconds:30}") long idleEvictSeconds
+    ) {
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(outboundConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+            .build();
+    }
+
+    @Bean
+    public RestTemplate outboundRestTemplate(CloseableHttpClient outboundHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(outboundHttpClient));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.courseplanner.config;
+
+import com.example.courseplanner.utils.RequestTiming;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * =========================================================
+ * Request Timing Configuration
+ *
+ * Adds a Server-Timing header to browse, graph and bookmark
+ * responses, breaking latency down into:
+ *
+ *   db       repository calls (count, total)
+ *   coursys  CourseSysClient fetches (count, total)
+ *   jwt      token verification
+ *   ser      writing the response body
+ *   total    whole request
+ *
+ * e.g. Server-Timing: db;dur=4.1;desc="3 calls", coursys;dur=38.0;desc="1 call", ser;dur=0.6, total;dur=45.2
+ *
+ * Timings are collected in RequestTiming (a ThreadLocal on the
+ * request thread: a few array increments per operation). The
+ * body is buffered so the header can include serialization.
+ *
+ * A request-timing.trace-sample-rate fraction of requests also
+ * writes a JSON trace record with every span to the
+ * "request-trace" logger (rolling file, see logback-spring.xml).
+ * =========================================================
+ */
+@Configuration
+public class RequestTimingConfig {
+
+    private static final Logger traceLog = LoggerFactory.getLogger("request-trace");
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+        ObjectMapper objectMapper,
+        @Value("${request-timing.enabled:true}") boolean enabled,
+        @Value("${request-timing.trace-sample-rate:0.01}") double traceSampleRate
+    ) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+            new FilterRegistrationBean<>(new ServerTimingFilter(objectMapper, traceSampleRate));
+        registration.addUrlPatterns("/api/departments", "/api/departments/*", "/api/graph/*", "/api/bookmarks", "/api/bookmarks/*");
+        registration.setEnabled(enabled);
+        // Outside the ETag filter, so the buffered body it writes is what we time
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    /**
+     * Reports every Spring Data repository call to the current request's timing.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation -> {
+                        RequestTiming timing = RequestTiming.current();
+                        if (timing == null) {
+                            return;
+                        }
+                        long duration = invocation.getDuration(TimeUnit.NANOSECONDS);
+                        timing.add(RequestTiming.Category.DB, System.nanoTime() - duration, duration,
+                            timing.keepsSpans()
+                                ? invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName()
+                                : null);
+                    }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Starts RequestTiming, buffers the body, then writes Server-Timing
+     * (and, for sampled requests, a trace record).
+     */
+    static class ServerTimingFilter extends OncePerRequestFilter {
+
+        private final ObjectMapper objectMapper;
+        private final double traceSampleRate;
+
+        ServerTimingFilter(ObjectMapper objectMapper, double traceSampleRate) {
+            this.objectMapper = objectMapper;
+            this.traceSampleRate = traceSampleRate;
+        }
+
+        @Override
+        protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+        ) throws ServletException, IOException {
+            boolean sampled = traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate;
+            RequestTiming timing = RequestTiming.begin(sampled);
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+            try {
+                filterChain.doFilter(request, wrapper);
+            } finally {
+                long end = System.nanoTime();
+                RequestTiming.end();
+
+                long serializationStart = timing.serializationStartNanos();
+                if (serializationStart > 0) {
+                    timing.add(RequestTiming.Category.SERIALIZATION, serializationStart, end - serializationStart, null);
+                }
+
+                if (!wrapper.isCommitted()) {
+                    wrapper.setHeader("Server-Timing", serverTiming(timing, end));
+                }
+                if (sampled) {
+                    writeTrace(request, wrapper.getStatus(), timing, end);
+                }
+
+                wrapper.copyBodyToResponse();
+            }
+        }
+
+        private String serverTiming(RequestTiming timing, long end) {
+            StringBuilder header = new StringBuilder();
+
+            for (RequestTiming.Category category : RequestTiming.Category.values()) {
+                long count = timing.count(category);
+                if (count == 0) {
+                    continue;
+                }
+                header.append(category.metricName()).append(";dur=").append(millis(timing.totalNanos(category)));
+                if (category != RequestTiming.Category.SERIALIZATION) {
+                    header.append(";desc=\"").append(count).append(count == 1 ? " call\"" : " calls\"");
+                }
+                header.append(", ");
+            }
+
+            return header.append("total;dur=").append(millis(end - timing.startNanos())).toString();
+        }
+
+        private void writeTrace(HttpServletRequest request, int status, RequestTiming timing, long end) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("ts", Instant.now().toString());
+            record.put("method", request.getMethod());
+            record.put("path", request.getRequestURI());
+            record.put("query", request.getQueryString());
+            record.put("status", status);
+            record.put("totalMs", millis(end - timing.startNanos()));
+
+            Map<String, Object> totals = new LinkedHashMap<>();
+            for (RequestTiming.Category category : RequestTiming.Category.values()) {
+                if (timing.count(category) > 0) {
+                    totals.put(category.metricName(), Map.of(
+                        "count", timing.count(category),
+                        "ms", millis(timing.totalNanos(category))));
+                }
+            }
+            record.put("totals", totals);
+
+            List<Map<String, Object>> spans = new ArrayList<>();
+            for (RequestTiming.Span span : timing.spans()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("cat", span.category().metricName());
+                entry.put("startMs", millis(span.startOffsetNanos()));
+                entry.put("ms", millis(span.durationNanos()));
+                entry.put("detail", span.detail());
+                spans.add(entry);
+            }
+            record.put("spans", spans);
+
+            try {
+                traceLog.info(objectMapper.writeValueAsString(record));
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not write request trace: " + e.getMessage());
+            }
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
@@ -13,7 +13,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Optional;
 import java.util.Comparator;
@@ -114,29 +119,49 @@ public class BookmarkController {
                 .map(t -> SemesterUtil.buildSemesterCode(t.getYear(), t.getTerm()))
                 .orElse(null);
 
-        List<ApiCourseOfferingDTO> results = new ArrayList<>();
+        // a) Load every bookmarked course (with department) in one query
+        Set<Long> courseIds = bookmarks.stream()
+                .map(Bookmark::getCourseId)
+                .collect(Collectors.toSet());
 
-        // Resolve each bookmark → CourseSys offering
+        Map<Long, Course> coursesById = courseRepository.findAllByIdWithDepartment(courseIds)
+                .stream()
+                .collect(Collectors.toMap(Course::getCourseId, Function.identity()));
+
+        if (coursesById.size() != courseIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        }
+
+        // b) One CourseSys key per (dept, course, semester) — several
+        //    bookmarked sections of the same offering share one fetch
+        Map<Bookmark, CourseSysKey> keyByBookmark = new LinkedHashMap<>();
         for (Bookmark bookmark : bookmarks) {
+            Course course = coursesById.get(bookmark.getCourseId());
+            keyByBookmark.put(bookmark, CourseSysKey.of(
+                    course.getDepartment().getDeptCode(),   // CMPT
+                    course.getCourseNumber(),               // 276
+                    bookmark.getSemesterCode()
+            ));
+        }
+
+        // c) Fetch all distinct offerings concurrently
+        Map<CourseSysKey, CourseSysBrowseResult> browseByKey =
+                courseSysClient.fetchCourseSectionsBatch(new LinkedHashSet<>(keyByBookmark.values()));
 
-            // a) Validate course
-            Course course = courseRepository.findByIdWithDepartment(bookmark.getCourseId())
-                    .orElseThrow(() ->
-                            new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        List<ApiCourseOfferingDTO> results = new ArrayList<>();
 
-            String dept = course.getDepartment().getDeptCode();   // CMPT
-            String number = course.getCourseNumber();             // 276
+        // Resolve each bookmark → CourseSys offering
+        for (Map.Entry<Bookmark, CourseSysKey> entry : keyByBookmark.entrySet()) {
+            Bookmark bookmark = entry.getKey();
 
-            // b) Decode semesterCode → year + term
+            // Decode semesterCode → year + term
             SemesterUtil.DecodedSemester decoded =
                     SemesterUtil.decodeSemesterCode(bookmark.getSemesterCode());
 
             long year = decoded.year();
             String term = decoded.term(); // "spring", "fall", etc.
 
-            // c) Fetch CourseSys data for EXACT semester
-            CourseSysBrowseResult browse =
-                    courseSysClient.fetchCourseSections(dept, number, bookmark.getSemesterCode());
+            CourseSysBrowseResult browse = browseByKey.get(entry.getValue());
 
             // d) Match exact section
             for (CourseSysOffering offering : browse.getOfferings()) {
@@ -158,10 +183,12 @@ public class BookmarkController {
                         isEnrolling,
                         offering.getCampus(),
                         offering.getInstructor(),
-                        offering.getEnrolled(),
-                        offering.getCapacity(),
+                        offering.getEnrolledText(),
+                        offering.getCapacityText(),
                         offering.getLoadPercent()
                 );
+                dto.setFetchedAt(browse.getFetchedAt());
+                dto.setStale(browse.isStale());
 
                 results.add(dto);
                 break; // section is unique per semester
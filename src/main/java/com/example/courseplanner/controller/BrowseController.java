@@ -3,8 +3,10 @@
  * Exposes multiple endpoints:
  * - `/api/departments`: Lists all departments.
  * - `/api/departments/{deptId}/courses`: Lists courses in a department.
+ * - `/api/departments/{deptId}/course-stats`: Precomputed enrollment aggregates for a department's courses.
  * - `/api/departments/{deptId}/courses/{courseId}/offerings`: Lists offerings for a course.
  * - `/api/departments/{deptId}/courses/{courseId}/offerings/{offeringId}`: Details of a specific offering.
+ * - `/api/departments/{deptId}/courses/{courseId}/page`: All of the course page (offerings, detail, graphs) at once.
  */
 
 
@@ -14,10 +16,16 @@ import com.example.courseplanner.dto.*;
 import com.example.courseplanner.entity.*;
 import com.example.courseplanner.repository.*;
 import com.example.courseplanner.model.*;
+import com.example.courseplanner.service.CatalogResponseCache;
+import com.example.courseplanner.service.CatalogService;
+import com.example.courseplanner.service.CoursePageService;
 import com.example.courseplanner.service.CourseSysClient;
+import com.example.courseplanner.service.HttpCachePolicy;
 import com.example.courseplanner.utils.*;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -28,52 +36,87 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api")
 public class BrowseController {
+    // Catalog snapshot version, for conditional requests
+    private static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+
     // inject jpa repositories or services as needed
     private final DepartmentRepository departmentRepository;
     private final CourseRepository courseRepository;
-    private final TermRepository termRepository;
     private final CourseSysClient courseSysClient;
     private final CourseDiggerStatsRepository courseDiggerStatsRepository;
+    private final CatalogService catalogService;
+    private final HttpCachePolicy httpCachePolicy;
+    private final CatalogResponseCache catalogResponseCache;
+    private final CourseStatsRepository courseStatsRepository;
+    private final CoursePageService coursePageService;
 
-    public BrowseController(DepartmentRepository departmentRepository, CourseRepository courseRepository, TermRepository termRepository, CourseSysClient courseSysClient, CourseDiggerStatsRepository courseDiggerStatsRepository) {
+    public BrowseController(DepartmentRepository departmentRepository, CourseRepository courseRepository, CourseSysClient courseSysClient, CourseDiggerStatsRepository courseDiggerStatsRepository, CatalogService catalogService, HttpCachePolicy httpCachePolicy, CatalogResponseCache catalogResponseCache, CourseStatsRepository courseStatsRepository, CoursePageService coursePageService) {
         this.departmentRepository = departmentRepository;
         this.courseRepository = courseRepository;
-        this.termRepository = termRepository;
         this.courseSysClient = courseSysClient;
         this.courseDiggerStatsRepository = courseDiggerStatsRepository;
+        this.catalogService = catalogService;
+        this.httpCachePolicy = httpCachePolicy;
+        this.catalogResponseCache = catalogResponseCache;
+        this.courseStatsRepository = courseStatsRepository;
+        this.coursePageService = coursePageService;
     }
 
     @GetMapping("/departments")
-    public ResponseEntity<List<ApiDepartmentDTO>> getDepartments() {
-        List<ApiDepartmentDTO> departmentDTOs = departmentRepository.findAll().stream()
-                .sorted(Comparator.comparing(Department::getDeptCode, String.CASE_INSENSITIVE_ORDER))
-                .map(department -> new ApiDepartmentDTO(department.getDeptId(), department.getDeptCode(), department.getName()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(departmentDTOs); // Return 200 OK with the list of departments
+    public ResponseEntity<byte[]> getDepartments(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Served from the in-memory catalog snapshot (no DB access),
+        // pre-serialized once per catalog version
+        CatalogSnapshot catalog = catalogService.snapshot();
+        CatalogResponseCache.SerializedBody body =
+                catalogResponseCache.get(catalog, "departments", CatalogSnapshot::departments);
+
+        return catalogResponse(catalog, body, acceptEncoding); // Return 200 OK with the list of departments
     }
     
     @GetMapping("/departments/{deptId}/courses")
-    public ResponseEntity<List<ApiCourseDTO>> getCourses(@PathVariable Long deptId) {
+    public ResponseEntity<byte[]> getCourses(
+            @PathVariable Long deptId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        CatalogSnapshot catalog = catalogService.snapshot();
+
         // Validate department exists
-        if (!departmentRepository.existsById(deptId)) {
+        if (catalog.coursesFor(deptId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        CatalogResponseCache.SerializedBody body =
+                catalogResponseCache.get(catalog, "courses:" + deptId, c -> c.coursesFor(deptId).get());
+
+        return catalogResponse(catalog, body, acceptEncoding);
+    }
+
+    // Precomputed enrollment aggregates for every course in a department
+    // (one query; no CourseSys calls). Courses without closed-semester data yet are omitted.
+    @GetMapping("/departments/{deptId}/course-stats")
+    public ResponseEntity<List<ApiCourseStatsDTO>> getCourseStats(@PathVariable Long deptId) {
+        // Validate department exists
+        if (catalogService.getCourses(deptId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
 
-        // Query database for courses in this department
-        List<ApiCourseDTO> courses = courseRepository.findByDeptId(deptId).stream()
-                .map(course -> new ApiCourseDTO(course.getCourseId(),
-                    deptId,
-                    course.getCourseNumber(),
-                    course.getTitle(),
-                    course.getDescription(),
-                    Optional.ofNullable(course.getUnits()).orElse(0L),
-                    course.getDegreeLevel(),
-                    course.getPrerequisites(),
-                    course.getCorequisites(),
-                    course.getDesignation()))
+        List<ApiCourseStatsDTO> stats = courseStatsRepository.findAllByDeptIdWithCourse(deptId).stream()
+                .map(s -> new ApiCourseStatsDTO(
+                        s.getCourse().getCourseId(),
+                        s.getCourse().getCourseNumber(),
+                        s.getCourse().getTitle(),
+                        s.getTotalEnrollment(),
+                        s.getTotalCapacity(),
+                        s.getLoadPercent(),
+                        s.getOfferedTerms(),
+                        s.getLastCalculatedAt()))
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(courses);
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.catalog())
+                .body(stats);
     }
 
     @GetMapping("/departments/{deptId}/courses/{courseId}/offerings")
@@ -89,65 +132,26 @@ public class BrowseController {
         String dept = course.getDepartment().getDeptCode();   // CMPT
         String number = course.getCourseNumber();             // 276
 
-        // 2. Get enrolling term (optional)
-        Optional<Term> enrollingOpt = termRepository.findByIsEnrollingTrue();
-
-        long year;
-        String term;
-        long semesterCode;
-
-        if (enrollingOpt.isPresent()) {
-            Term enrolling = enrollingOpt.get();
-            year = enrolling.getYear();        // 2026
-            term = enrolling.getTerm();        // spring
-            semesterCode = SemesterUtil.buildSemesterCode(year, term);
-        } else {
-            // fallback to current term or latest known term
-            Term current = termRepository.findByIsCurrentTrue()
-                    .orElseThrow(() -> new ResponseStatusException(
-                            HttpStatus.INTERNAL_SERVER_ERROR, "No term data"));
-
-            year = current.getYear();
-            term = current.getTerm();
-            semesterCode = SemesterUtil.buildSemesterCode(year, term);
-        }
+        // 2. Count back from the enrolling term (or current term if none)
+        CoursePageService.Window window = coursePageService.window();
 
-        List<ApiCourseOfferingDTO> results = new ArrayList<>();
-
-        // 3. Iterate backwards 12 semesters (4 years * 3 semesters)
-        for (int i = 0; i < 12; i++) {
-
-            CourseSysBrowseResult browse =
-                    courseSysClient.fetchCourseSections(dept, number, semesterCode);
-
-            boolean isEnrolling = (i == 0 && enrollingOpt.isPresent());
-
-            for (CourseSysOffering offering : browse.getOfferings()) {                       
-                ApiCourseOfferingDTO dto = new ApiCourseOfferingDTO(
-                        offering.getSection(),
-                        offering.getInfoUrl(),
-                        capitalize(term), // spring
-                        year,
-                        semesterCode, // 1247
-                        isEnrolling,
-                        offering.getCampus(),
-                        offering.getInstructor(),
-                        offering.getEnrolled(),
-                        offering.getCapacity(),
-                        offering.getLoadPercent()
-                );
+        // 3. Work out the last 12 semesters (4 years * 3 semesters) up front
+        List<SemesterUtil.Prev> semesters = SemesterUtil.recentSemesters(
+                window.year(), window.term(), CoursePageService.OFFERINGS_SEMESTERS);
+        List<Long> semesterCodes = semesters.stream()
+                .map(SemesterUtil.Prev::semesterCode)
+                .toList();
 
-                results.add(dto);
-            }
+        // 4. Fetch all semesters concurrently (order preserved, newest first)
+        List<CourseSysBrowseResult> browses =
+                courseSysClient.fetchCourseSectionsForSemesters(dept, number, semesterCodes);
 
-            // move to previous semester
-            SemesterUtil.Prev prev = SemesterUtil.previous(year, term);
-            year = prev.year();
-            term = prev.term();
-            semesterCode = prev.semesterCode();
-        }
+        List<ApiCourseOfferingDTO> results = coursePageService.toOfferings(semesters, browses, window.enrolling());
 
-        return ResponseEntity.ok(results);
+        // Long-lived only if every semester shown is closed and CourseSys answered
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.forSemesters(semesterCodes, browses))
+                .body(results);
     }
 
     @GetMapping("/departments/{deptId}/courses/{courseId}/offerings/{semesterCode}")
@@ -174,109 +178,94 @@ public class BrowseController {
                         semesterCode
                 );
 
-        // 3. Map sections
-        List<ApiCourseOfferingDTO> sections = csResult.getOfferings().stream()
-                .map(o -> new ApiCourseOfferingDTO(
-                        o.getSection(),
-                        o.getInfoUrl(),
-                        csResult.getSemester(),
-                        csResult.getYear(),
-                        csResult.getSemesterCode(),
-                        false,
-                        o.getCampus(),
-                        o.getInstructor(),
-                        o.getEnrolled(),
-                        o.getCapacity(),
-                        o.getLoadPercent()
-                ))
-                .toList();
-
-        // 4. CourseDiggers stats (optional)
+        // 3. CourseDiggers stats (optional)
         CourseDiggerStats stats = courseDiggerStatsRepository
                 .findByCourseCourseId(courseId)
                 .orElse(null);
 
-        // 5. Assemble DTO
-        // ---- Resolve course + dept info ----
-        String deptCode = dept.getDeptCode();
-        String courseNumber = course.getCourseNumber();
-        String title = course.getTitle();
+        // 4. Assemble DTO
+        ApiOfferingDetailDTO dto = coursePageService.toOfferingDetail(
+                deptId, course, dept.getDeptCode(), csResult, stats);
 
-        // ---- Resolve term info ----
-        long year = csResult.getYear();
-        String term = csResult.getSemester();
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.forSemesters(List.of(semesterCode), List.of(csResult)))
+                .body(dto);
+    }
 
-        // ---- Resolve campus (from sections if available) ----
-        String campus = sections.isEmpty()
-                ? null
-                : sections.get(0).getLocation();
+    /**
+     * Everything the course page shows in one response: offerings, the
+     * offering detail for one semester, grade distribution and enrollment
+     * history. Each distinct CourseSys semester is fetched once.
+     *
+     * @param semesterCode Semester for the offering detail (default: newest in the window)
+     * @param range Enrollment history range ("1yr", "3yr", "5yr")
+     */
+    @GetMapping("/departments/{deptId}/courses/{courseId}/page")
+    public ResponseEntity<ApiCoursePageDTO> getCoursePage(
+            @PathVariable Long deptId,
+            @PathVariable Long courseId,
+            @RequestParam(required = false) Long semesterCode,
+            @RequestParam(defaultValue = "5yr") String range
+    ) {
+        CoursePageService.CoursePage page = coursePageService.getCoursePage(deptId, courseId, semesterCode, range);
 
-        // ---- Resolve CourseDiggers stats ----
-        String medianGrade = null;
-        double failRate = 0.0;
-        Map<String, Long> gradeDistribution = null;
+        // Long-lived only if every semester on the page is closed and CourseSys answered
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.forSemesters(page.semesterCodes(), page.browses()))
+                .body(page.body());
+    }
 
-        if (stats != null) {
-            medianGrade = stats.getMedianGrade();
+    /**
+     * Writes a pre-serialized catalog body as-is (gzip if the client accepts it).
+     * If-None-Match with the current version → 304 (handled by Spring from the ETag).
+     */
+    private ResponseEntity<byte[]> catalogResponse(
+            CatalogSnapshot catalog,
+            CatalogResponseCache.SerializedBody body,
+            String acceptEncoding
+    ) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        // Each encoding is a different representation → its own strong ETag
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? catalog.version() + "-gzip" : catalog.version())
+                .cacheControl(httpCachePolicy.catalog())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(CATALOG_VERSION_HEADER, catalog.version());
+
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
 
-            if (stats.getFailRate() != null) {
-                failRate = stats.getFailRate().doubleValue();
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return qValue(parts) > 0;
             }
         }
+        return false;
+    }
 
-        if (stats != null && stats.getGradeDistribution() != null) {
-            gradeDistribution = new HashMap<>();
-
-            for (Map.Entry<String, Object> entry : stats.getGradeDistribution().entrySet()) {
-                Object value = entry.getValue();
-
-                if (value instanceof Number) {
-                    gradeDistribution.put(entry.getKey(), ((Number) value).longValue());
+    /**
+     * q-value of one Accept-Encoding entry ("gzip;q=0.5" → 0.5, no q → 1).
+     * Unparseable values count as 0, so the plain body is sent.
+     */
+    private double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].replace(" ", "");
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
                 }
             }
         }
-
-        // ---- Resolve course metadata ----
-        String description = course.getDescription();
-        String prerequisites = course.getPrerequisites();
-        String corequisites = course.getCorequisites();
-        long units = Optional.ofNullable(course.getUnits()).orElse(0L);
-        String degreeLevel = course.getDegreeLevel();
-        String designation = course.getDesignation();
-
-        // ---- Resolve outline URL ----
-        String outlineUrl =
-                "https://www.sfu.ca/outlines.html?dept="
-                        + deptCode
-                        + "&number=" + courseNumber;
-
-        // ---- Final DTO construction ----
-        ApiOfferingDetailDTO dto = new ApiOfferingDetailDTO(
-                deptId,
-                courseId,
-                deptCode,
-                courseNumber,
-                title,
-                year,
-                term,
-                campus,
-                medianGrade,
-                failRate,
-                gradeDistribution,
-                description,
-                prerequisites,
-                corequisites,
-                units,
-                degreeLevel,
-                designation,
-                sections,
-                outlineUrl
-        );
-        return ResponseEntity.ok(dto);
-    }
-
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+        return 1;
     }
 }
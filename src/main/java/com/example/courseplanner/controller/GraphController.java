@@ -4,7 +4,10 @@ import com.example.courseplanner.dto.*;
 import com.example.courseplanner.entity.*;
 import com.example.courseplanner.model.*;
 import com.example.courseplanner.repository.*;
+import com.example.courseplanner.service.CoursePageService;
 import com.example.courseplanner.service.CourseSysClient;
+import com.example.courseplanner.service.EnrollmentHistoryService;
+import com.example.courseplanner.service.HttpCachePolicy;
 import com.example.courseplanner.utils.SemesterUtil;
 
 import org.springframework.http.HttpStatus;
@@ -27,10 +30,14 @@ import java.util.stream.Collectors;
  *    - Used for Chart C: Grade Distribution bar chart
  *
  * 2. /api/graph/enrollment-history?deptId={}&courseId={}&range=5yr
- *    - Returns time-series enrollment data (dynamic CourseSys API)
+ *    - Returns time-series enrollment data (materialized history
+ *      for closed semesters + live CourseSys for current/enrolling)
  *    - Used for Chart A: Load Over Time
  *    - Used for Chart B: Enrollment vs Capacity
  *
+ * Both responses carry a content ETag (HttpCachingConfig) and a
+ * Cache-Control lifetime from HttpCachePolicy.
+ *
  * =========================================================
  */
 @RestController
@@ -39,21 +46,27 @@ public class GraphController {
 
     private final CourseRepository courseRepository;
     private final DepartmentRepository departmentRepository;
-    private final TermRepository termRepository;
     private final CourseDiggerStatsRepository courseDiggerStatsRepository;
+    private final HttpCachePolicy httpCachePolicy;
+    private final EnrollmentHistoryService enrollmentHistoryService;
+    private final CoursePageService coursePageService;
     private final CourseSysClient courseSysClient;
 
     public GraphController(
         CourseRepository courseRepository,
         DepartmentRepository departmentRepository,
-        TermRepository termRepository,
         CourseDiggerStatsRepository courseDiggerStatsRepository,
+        HttpCachePolicy httpCachePolicy,
+        EnrollmentHistoryService enrollmentHistoryService,
+        CoursePageService coursePageService,
         CourseSysClient courseSysClient
     ) {
         this.courseRepository = courseRepository;
         this.departmentRepository = departmentRepository;
-        this.termRepository = termRepository;
         this.courseDiggerStatsRepository = courseDiggerStatsRepository;
+        this.httpCachePolicy = httpCachePolicy;
+        this.enrollmentHistoryService = enrollmentHistoryService;
+        this.coursePageService = coursePageService;
         this.courseSysClient = courseSysClient;
     }
 
@@ -84,43 +97,13 @@ public class GraphController {
                         HttpStatus.NOT_FOUND, 
                         "Grade distribution not available for this course"));
 
-        // 3. Extract department and course info
-        String deptCode = course.getDepartment().getDeptCode();
-        String courseNumber = course.getCourseNumber();
-        String title = course.getTitle();
-
-        // 4. Extract grade stats
-        String medianGrade = stats.getMedianGrade();
-        Double failRate = stats.getFailRate();
-
-        // 5. Convert grade distribution Map<String, Object> to Map<String, Long>
-        Map<String, Long> distribution = new HashMap<>();
-        
-        if (stats.getGradeDistribution() != null) {
-            for (Map.Entry<String, Object> entry : stats.getGradeDistribution().entrySet()) {
-                String grade = entry.getKey();
-                Object value = entry.getValue();
-                
-                // Skip non-grade keys (like "Median Grade", "Fail Rate")
-                if (grade.matches("^[A-F][+-]?$") || grade.equals("F")) {
-                    if (value instanceof Number) {
-                        distribution.put(grade, ((Number) value).longValue());
-                    }
-                }
-            }
-        }
-
-        // 6. Build and return DTO
-        ApiGradeDistributionDTO dto = new ApiGradeDistributionDTO(
-            deptCode,
-            courseNumber,
-            title,
-            medianGrade,
-            failRate,
-            distribution
-        );
-
-        return ResponseEntity.ok(dto);
+        // 3. Build DTO
+        ApiGradeDistributionDTO dto = coursePageService.toGradeDistribution(course, stats);
+
+        // CourseDiggers data only changes with the scraper
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.catalog())
+                .body(dto);
     }
 
     // =====================================================
@@ -148,89 +131,35 @@ public class GraphController {
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
 
-        String dept = course.getDepartment().getDeptCode();   // CMPT
-        String number = course.getCourseNumber();             // 276
-
-        // 2. Get enrolling term (optional)
-        Optional<Term> enrollingOpt = termRepository.findByIsEnrollingTrue();
-
-        long year;
-        String term;
-        long semesterCode;
-
-        if (enrollingOpt.isPresent()) {
-            Term enrolling = enrollingOpt.get();
-            year = enrolling.getYear();        // 2026
-            term = enrolling.getTerm();        // spring
-            semesterCode = SemesterUtil.buildSemesterCode(year, term);
-        } else {
-            // fallback to current term or latest known term
-            Term current = termRepository.findByIsCurrentTrue()
-                    .orElseThrow(() -> new ResponseStatusException(
-                            HttpStatus.INTERNAL_SERVER_ERROR, "No term data"));
-
-            year = current.getYear();
-            term = current.getTerm();
-            semesterCode = SemesterUtil.buildSemesterCode(year, term);
-        }
-
-        List<ApiEnrollmentDataPointDTO> results = new ArrayList<>();
-        int numSemesters = parseSemesterRange(range);
-
-        // 3. Iterate backwards for num_semesters based on range
-        for (int i = 0; i < numSemesters; i++) {
-
-            CourseSysBrowseResult browse =
-                    courseSysClient.fetchCourseSections(dept, number, semesterCode);
-
-            // Calculate total enrolled and capacity across all offerings for same semester
-            int totalEnrolled = 0;
-            int totalCapacity = 0;
-            for (CourseSysOffering offering : browse.getOfferings()) {                       
-                // @TODO: only consider lecture sections (includes D, SEM, LAB?, etc)
-                totalCapacity += offering.getCapacityCount();
-                totalEnrolled += offering.getEnrolledCount();
-            }
-            
-            // Always add data point (even if 0) to show gaps when course wasn't offered
-            ApiEnrollmentDataPointDTO dto = new ApiEnrollmentDataPointDTO(
-                        semesterCode,
-                        capitalize(term),  // ← Capitalize for frontend
-                        year,
-                        totalEnrolled,
-                        totalCapacity,
-                        totalCapacity == 0 ? 0.0 : (totalEnrolled * 100.0) / totalCapacity
-            );
-            results.add(dto);
-
-            // move to previous semester
-            SemesterUtil.Prev prev = SemesterUtil.previous(year, term);
-            year = prev.year();
-            term = prev.term();
-            semesterCode = prev.semesterCode();
-        }
+        // 2. Count back from the enrolling term (or current term if none)
+        CoursePageService.Window window = coursePageService.window();
+
+        int numSemesters = SemesterUtil.semesterCountForRange(range);
+
+        // 3. Work out semesters up front (newest first)
+        List<SemesterUtil.Prev> semesters = SemesterUtil.recentSemesters(window.year(), window.term(), numSemesters);
+        List<Long> semesterCodes = semesters.stream()
+                .map(SemesterUtil.Prev::semesterCode)
+                .toList();
+
+        // Closed semesters come from the materialized table, live ones from CourseSys.
+        // Always one data point per semester (even if 0) to show gaps when course wasn't offered
+        List<CourseSysBrowseResult> browses = new ArrayList<>();
+        List<ApiEnrollmentDataPointDTO> results = new ArrayList<>(enrollmentHistoryService.getHistory(
+                course,
+                semesters,
+                missing -> {
+                    Map<CourseSysKey, CourseSysBrowseResult> fetched = courseSysClient.fetchCourseSectionsBatch(missing);
+                    browses.addAll(fetched.values());
+                    return fetched;
+                }));
 
         // Reverse to get chronological order (oldest → newest)
         Collections.reverse(results);        
-        return ResponseEntity.ok(results);
-    }
-
-    // Helper to parse range string into number of semesters
-    private int parseSemesterRange(String range) {
-        switch (range) {
-            case "1yr":
-                return 3;   
-            case "3yr":
-                return 9;   
-            case "5yr":
-            default:
-                return 15; 
-        }
-    }
 
-    // Helper to capitalize first letter
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+        // Long-lived only if every semester in the range is closed and CourseSys answered
+        return ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.forSemesters(semesterCodes, browses))
+                .body(results);
     }
-}
\ No newline at end of file
+}
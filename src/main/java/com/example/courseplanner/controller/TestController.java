@@ -34,8 +34,8 @@ public class TestController {
             
             Map<String, String> response = new HashMap<>();
             response.put("userId", userId);
-            response.put("message", "JWT verified via Supabase API!");
-            response.put("method", "API Call Verification");
+            response.put("message", "JWT verified!");
+            response.put("method", jwtService.getVerificationMode());
             
             return ResponseEntity.ok(response);
             
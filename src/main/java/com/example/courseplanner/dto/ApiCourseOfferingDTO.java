@@ -6,6 +6,8 @@
 
 package com.example.courseplanner.dto;
 
+import java.time.Instant;
+
 public class ApiCourseOfferingDTO {
     // Section identity
     private String section;        // D100
@@ -26,6 +28,10 @@ public class ApiCourseOfferingDTO {
     private String capacity;          // 100
     private Long loadPercent;       // 96
 
+    // Freshness
+    private Instant fetchedAt;      // when CourseSys was last asked (2026-01-08T18:04:11Z)
+    private boolean stale;          // true = CourseSys is down, showing last known data
+
     // constructors
     public ApiCourseOfferingDTO(String section, String infoUrl, String term, Long year, Long semesterCode, boolean isEnrolling, String location, String instructors, String enrolled, String capacity, Long loadPercent) {
         this.section = section;
@@ -111,4 +117,16 @@ public class ApiCourseOfferingDTO {
     public void setLoadPercent(Long loadPercent) {
         this.loadPercent = loadPercent;
     }
-}
\ No newline at end of file
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+    public boolean isStale() {
+        return stale;
+    }
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+}
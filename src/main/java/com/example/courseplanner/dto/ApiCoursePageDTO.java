@@ -0,0 +1,67 @@
+package com.example.courseplanner.dto;
+
+import java.util.List;
+
+/**
+ * DTO for everything the course page shows, in one response
+ * Used in /api/departments/{deptId}/courses/{courseId}/page endpoint
+ *
+ * Each part has the same shape as its standalone endpoint:
+ * - offerings          ← /offerings
+ * - offeringDetail     ← /offerings/{semesterCode}
+ * - gradeDistribution  ← /api/graph/grade-distribution (null if no CourseDiggers data)
+ * - enrollmentHistory  ← /api/graph/enrollment-history
+ */
+public class ApiCoursePageDTO {
+
+    private List<ApiCourseOfferingDTO> offerings;
+    private ApiOfferingDetailDTO offeringDetail;
+    private ApiGradeDistributionDTO gradeDistribution;
+    private List<ApiEnrollmentDataPointDTO> enrollmentHistory;
+
+    // Constructor
+    public ApiCoursePageDTO(
+        List<ApiCourseOfferingDTO> offerings,
+        ApiOfferingDetailDTO offeringDetail,
+        ApiGradeDistributionDTO gradeDistribution,
+        List<ApiEnrollmentDataPointDTO> enrollmentHistory
+    ) {
+        this.offerings = offerings;
+        this.offeringDetail = offeringDetail;
+        this.gradeDistribution = gradeDistribution;
+        this.enrollmentHistory = enrollmentHistory;
+    }
+
+    // Getters and Setters
+    public List<ApiCourseOfferingDTO> getOfferings() {
+        return offerings;
+    }
+
+    public void setOfferings(List<ApiCourseOfferingDTO> offerings) {
+        this.offerings = offerings;
+    }
+
+    public ApiOfferingDetailDTO getOfferingDetail() {
+        return offeringDetail;
+    }
+
+    public void setOfferingDetail(ApiOfferingDetailDTO offeringDetail) {
+        this.offeringDetail = offeringDetail;
+    }
+
+    public ApiGradeDistributionDTO getGradeDistribution() {
+        return gradeDistribution;
+    }
+
+    public void setGradeDistribution(ApiGradeDistributionDTO gradeDistribution) {
+        this.gradeDistribution = gradeDistribution;
+    }
+
+    public List<ApiEnrollmentDataPointDTO> getEnrollmentHistory() {
+        return enrollmentHistory;
+    }
+
+    public void setEnrollmentHistory(List<ApiEnrollmentDataPointDTO> enrollmentHistory) {
+        this.enrollmentHistory = enrollmentHistory;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.courseplanner.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for precomputed per-course enrollment aggregates
+ * Used in /api/departments/{deptId}/course-stats endpoint
+ * 
+ * Totals cover every closed semester the course was offered in
+ * (see offeredTerms), so list views can show load without any
+ * CourseSys calls.
+ */
+public class ApiCourseStatsDTO {
+
+    private Long courseId;
+    private String courseNumber;      // "276"
+    private String title;
+
+    private Integer totalEnrollment;  // Sum over offered closed semesters
+    private Integer totalCapacity;
+    private Double loadPercent;       // totalEnrollment/totalCapacity * 100
+    private Map<String, Object> offeredTerms; // { "2024": ["spring", "fall"], ... }
+    private LocalDateTime lastCalculatedAt;
+
+    // Constructor
+    public ApiCourseStatsDTO(
+        Long courseId,
+        String courseNumber,
+        String title,
+        Integer totalEnrollment,
+        Integer totalCapacity,
+        Double loadPercent,
+        Map<String, Object> offeredTerms,
+        LocalDateTime lastCalculatedAt
+    ) {
+        this.courseId = courseId;
+        this.courseNumber = courseNumber;
+        this.title = title;
+        this.totalEnrollment = totalEnrollment;
+        this.totalCapacity = totalCapacity;
+        this.loadPercent = loadPercent;
+        this.offeredTerms = offeredTerms;
+        this.lastCalculatedAt = lastCalculatedAt;
+    }
+
+    // Getters and Setters
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public String getCourseNumber() { return courseNumber; }
+    public void setCourseNumber(String courseNumber) { this.courseNumber = courseNumber; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public Integer getTotalEnrollment() { return totalEnrollment; }
+    public void setTotalEnrollment(Integer totalEnrollment) { this.totalEnrollment = totalEnrollment; }
+
+    public Integer getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(Integer totalCapacity) { this.totalCapacity = totalCapacity; }
+
+    public Double getLoadPercent() { return loadPercent; }
+    public void setLoadPercent(Double loadPercent) { this.loadPercent = loadPercent; }
+
+    public Map<String, Object> getOfferedTerms() { return offeredTerms; }
+    public void setOfferedTerms(Map<String, Object> offeredTerms) { this.offeredTerms = offeredTerms; }
+
+    public LocalDateTime getLastCalculatedAt() { return lastCalculatedAt; }
+    public void setLastCalculatedAt(LocalDateTime lastCalculatedAt) { this.lastCalculatedAt = lastCalculatedAt; }
+}
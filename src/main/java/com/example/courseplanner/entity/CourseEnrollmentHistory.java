@@ -0,0 +1,86 @@
+// src/main/java/com/example/courseplanner/entity/CourseEnrollmentHistory.java
+package com.example.courseplanner.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized enrollment totals for one course in one CLOSED semester.
+ * 
+ * One row per (course, semester), summed across all sections. Backs the
+ * enrollment-history chart so closed semesters are a single range scan
+ * instead of a CourseSys call each.
+ */
+@Entity
+@Table(
+    name = "course_enrollment_history",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"course_id", "semester_code"})
+    }
+)
+public class CourseEnrollmentHistory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "history_id")
+    private Long historyId;
+    
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+    
+    @Column(name = "semester_code", nullable = false)
+    private Long semesterCode;
+    
+    @Column(name = "total_enrolled", nullable = false)
+    private Integer totalEnrolled = 0;
+    
+    @Column(name = "total_capacity", nullable = false)
+    private Integer totalCapacity = 0;
+    
+    @Column(name = "load_percent", nullable = false)
+    private Double loadPercent = 0.0;
+    
+    @Column(name = "section_count", nullable = false)
+    private Integer sectionCount = 0;
+    
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+    
+    // Constructors
+    public CourseEnrollmentHistory() {}
+    
+    public CourseEnrollmentHistory(Long courseId, Long semesterCode) {
+        this.courseId = courseId;
+        this.semesterCode = semesterCode;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        computedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getHistoryId() { return historyId; }
+    public void setHistoryId(Long historyId) { this.historyId = historyId; }
+    
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+    
+    public Long getSemesterCode() { return semesterCode; }
+    public void setSemesterCode(Long semesterCode) { this.semesterCode = semesterCode; }
+    
+    public Integer getTotalEnrolled() { return totalEnrolled; }
+    public void setTotalEnrolled(Integer totalEnrolled) { this.totalEnrolled = totalEnrolled; }
+    
+    public Integer getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(Integer totalCapacity) { this.totalCapacity = totalCapacity; }
+    
+    public Double getLoadPercent() { return loadPercent; }
+    public void setLoadPercent(Double loadPercent) { this.loadPercent = loadPercent; }
+    
+    public Integer getSectionCount() { return sectionCount; }
+    public void setSectionCount(Integer sectionCount) { this.sectionCount = sectionCount; }
+    
+    public LocalDateTime getComputedAt() { return computedAt; }
+}
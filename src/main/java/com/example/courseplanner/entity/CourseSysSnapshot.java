@@ -0,0 +1,84 @@
+// src/main/java/com/example/courseplanner/entity/CourseSysSnapshot.java
+package com.example.courseplanner.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Persisted CourseSys browse result for one course in one closed semester.
+ * 
+ * Closed semesters never change, so a row written once is reused by every
+ * node and survives restarts/redeploys.
+ */
+@Entity
+@Table(
+    name = "coursys_snapshots",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"dept_code", "course_number", "semester_code"})
+    }
+)
+public class CourseSysSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+    
+    @Column(name = "dept_code", nullable = false, length = 10)
+    private String deptCode;
+    
+    @Column(name = "course_number", nullable = false, length = 10)
+    private String courseNumber;
+    
+    @Column(name = "semester_code", nullable = false)
+    private Long semesterCode;
+    
+    @Column(length = 500)
+    private String title;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "sections", columnDefinition = "jsonb")
+    private Map<String, Object> sections; // e.g., { "offerings": [ { "section": "D100", "enrolled": "96", ... } ] }
+    
+    @Column(name = "fetched_at")
+    private LocalDateTime fetchedAt;
+    
+    // Constructors
+    public CourseSysSnapshot() {}
+    
+    public CourseSysSnapshot(String deptCode, String courseNumber, Long semesterCode) {
+        this.deptCode = deptCode;
+        this.courseNumber = courseNumber;
+        this.semesterCode = semesterCode;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        fetchedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getSnapshotId() { return snapshotId; }
+    public void setSnapshotId(Long snapshotId) { this.snapshotId = snapshotId; }
+    
+    public String getDeptCode() { return deptCode; }
+    public void setDeptCode(String deptCode) { this.deptCode = deptCode; }
+    
+    public String getCourseNumber() { return courseNumber; }
+    public void setCourseNumber(String courseNumber) { this.courseNumber = courseNumber; }
+    
+    public Long getSemesterCode() { return semesterCode; }
+    public void setSemesterCode(Long semesterCode) { this.semesterCode = semesterCode; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public Map<String, Object> getSections() { return sections; }
+    public void setSections(Map<String, Object> sections) { this.sections = sections; }
+    
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+}
@@ -0,0 +1,69 @@
+// src/main/java/com/example/courseplanner/entity/CrawlerCheckpoint.java
+package com.example.courseplanner.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resumable progress of a background crawler.
+ * 
+ * One row per crawler. A pass walks courses in course_id order; the row
+ * records where the current pass is, so a restart or redeploy picks up
+ * from the last finished course instead of starting over.
+ */
+@Entity
+@Table(name = "crawler_checkpoints")
+public class CrawlerCheckpoint {
+    
+    @Id
+    @Column(name = "crawler_name", length = 50)
+    private String crawlerName;
+    
+    // Last course_id fully processed in the current pass (0 = pass not started)
+    @Column(name = "last_course_id", nullable = false)
+    private Long lastCourseId = 0L;
+    
+    // Newest closed semester the current pass covers (1254); a new term starts a new pass
+    @Column(name = "newest_semester_code")
+    private Long newestSemesterCode;
+    
+    @Column(name = "pass_started_at")
+    private LocalDateTime passStartedAt;
+    
+    @Column(name = "last_pass_completed_at")
+    private LocalDateTime lastPassCompletedAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public CrawlerCheckpoint() {}
+    
+    public CrawlerCheckpoint(String crawlerName) {
+        this.crawlerName = crawlerName;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getCrawlerName() { return crawlerName; }
+    public void setCrawlerName(String crawlerName) { this.crawlerName = crawlerName; }
+    
+    public Long getLastCourseId() { return lastCourseId; }
+    public void setLastCourseId(Long lastCourseId) { this.lastCourseId = lastCourseId; }
+    
+    public Long getNewestSemesterCode() { return newestSemesterCode; }
+    public void setNewestSemesterCode(Long newestSemesterCode) { this.newestSemesterCode = newestSemesterCode; }
+    
+    public LocalDateTime getPassStartedAt() { return passStartedAt; }
+    public void setPassStartedAt(LocalDateTime passStartedAt) { this.passStartedAt = passStartedAt; }
+    
+    public LocalDateTime getLastPassCompletedAt() { return lastPassCompletedAt; }
+    public void setLastPassCompletedAt(LocalDateTime lastPassCompletedAt) { this.lastPassCompletedAt = lastPassCompletedAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
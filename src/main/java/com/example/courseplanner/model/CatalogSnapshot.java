@@ -0,0 +1,34 @@
+/**
+ * Immutable view of the course catalog (departments + courses) at one point in time.
+ *
+ * Built by CatalogService and replaced wholesale on refresh, so a request that
+ * holds a snapshot sees one consistent catalog even if a refresh lands mid-request.
+ *
+ * version is a content hash: it changes only when the catalog itself changes,
+ * so clients can use it for conditional requests.
+ */
+
+package com.example.courseplanner.model;
+
+import com.example.courseplanner.dto.ApiCourseDTO;
+import com.example.courseplanner.dto.ApiDepartmentDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public record CatalogSnapshot(
+        String version,
+        long builtAt,
+        List<ApiDepartmentDTO> departments,
+        Map<Long, List<ApiCourseDTO>> coursesByDeptId
+) {
+
+    /**
+     * @param deptId Department id
+     * @return Courses in the department, or empty if the department doesn't exist
+     */
+    public Optional<List<ApiCourseDTO>> coursesFor(long deptId) {
+        return Optional.ofNullable(coursesByDeptId.get(deptId));
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.example.courseplanner.model;
 
+import java.time.Instant;
 import java.util.List;
 
 public class CourseSysBrowseResult {
@@ -31,6 +32,16 @@ public class CourseSysBrowseResult {
 
     private List<CourseSysOffering> offerings;
 
+    // when this data was fetched from CourseSys (null if unavailable)
+    private Instant fetchedAt;
+
+    // true if CourseSys could not be reached; offerings is then an empty
+    // placeholder, or last known good data if stale is also set
+    private boolean unavailable;
+
+    // true if served from expired cached data while CourseSys was unreachable
+    private boolean stale;
+
     // getters / setters
 
     public long getYear() {
@@ -88,4 +99,28 @@ public class CourseSysBrowseResult {
     public void setOfferings(List<CourseSysOffering> offerings) {
         this.offerings = offerings;
     }
+
+    public boolean isUnavailable() {
+        return unavailable;
+    }
+
+    public void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
 }
@@ -0,0 +1,18 @@
+/**
+ * Identifies one CourseSys browse query: a single course in a single semester.
+ *
+ * Department codes and course numbers are normalized to upper case so
+ * "cmpt 105w" and "CMPT 105W" resolve to the same key.
+ *
+ * Example:
+ *   CourseSysKey.of("cmpt", "276", 1257) → CourseSysKey[dept=CMPT, courseNumber=276, semesterCode=1257]
+ */
+
+package com.example.courseplanner.model;
+
+public record CourseSysKey(String dept, String courseNumber, long semesterCode) {
+
+    public static CourseSysKey of(String dept, String courseNumber, long semesterCode) {
+        return new CourseSysKey(dept.toUpperCase(), courseNumber.trim().toUpperCase(), semesterCode);
+    }
+}
@@ -1,18 +1,20 @@
 /**
  * Model representing a single course offering/section from CourseSys.
- * 
+ *
  * Contains section-specific data including enrollment numbers, instructor,
  * campus location, and computed values like load percentage.
- * 
- * Handles parsing of enrollment strings that may include waitlist numbers
- * (e.g., "115 (+31)" means 115 enrolled + 31 waitlisted).
- * 
+ *
+ * Enrollment is held as numbers, parsed once when the CourseSys response
+ * is read. CourseSys shows it as "115 (+31)/100", meaning 115 enrolled,
+ * 31 waitlisted, capacity 100. The load percentage is computed when the
+ * counts are set, so the getters below are plain field reads.
+ *
  * Example:
  *   CourseSysOffering offering = new CourseSysOffering();
  *   offering.setSection("D100");
- *   offering.setEnrolled("96 (+4)");
- *   offering.setCapacity("100");
- *   
+ *   offering.setEnrollment(96, 4, 100);
+ *
+ *   offering.getEnrolledText()  → "96 (+4)"
  *   offering.getEnrolledCount() → 100 (96 + 4 waitlist)
  *   offering.getCapacityCount() → 100
  *   offering.getLoadPercent()   → 100 (100/100 * 100)
@@ -20,17 +22,17 @@
 
 package com.example.courseplanner.model;
 
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-
 public class CourseSysOffering {
     private String section;
     private String instructor;
-    private String enrolled;
-    private String capacity;
     private String campus;
     private String infoUrl;
 
+    private int enrolled;    // 115
+    private int waitlist;    // 31
+    private int capacity;    // 100
+    private long loadPercent; // 146 (computed from the above)
+
     // getters / setters
     public String getSection() {
         return section;
@@ -48,20 +50,25 @@ public class CourseSysOffering {
         this.instructor = instructor;
     }
 
-    public String getEnrolled() {
+    public int getEnrolled() {
         return enrolled;
     }
 
-    public void setEnrolled(String enrolled) {
-        this.enrolled = enrolled;
+    public int getWaitlist() {
+        return waitlist;
     }
 
-    public String getCapacity() {
+    public int getCapacity() {
         return capacity;
     }
 
-    public void setCapacity(String capacity) {
+    public void setEnrollment(int enrolled, int waitlist, int capacity) {
+        this.enrolled = enrolled;
+        this.waitlist = waitlist;
         this.capacity = capacity;
+        this.loadPercent = capacity > 0
+                ? Math.round(((enrolled + waitlist) * 100.0) / capacity)
+                : 0;
     }
 
     public String getCampus() {
@@ -82,84 +89,95 @@ public class CourseSysOffering {
 
     // specials ---------------------------------
     /**
-     * Parses enrolled string and returns total count including waitlist.
-     * 
-     * Handles formats:
-     *   "96"         → 96
-     *   "115 (+31)"  → 146 (115 + 31 waitlist)
-     * 
-     * @return Total enrolled count (base + waitlist), or 0 if parsing fails
+     * Enrollment as CourseSys displays it (API responses keep this format).
+     *
+     *   enrolled=96, waitlist=0   → "96"
+     *   enrolled=115, waitlist=31 → "115 (+31)"
      */
-    public int getEnrolledCount() {
-        return parseWithWaitlist(enrolled);
+    public String getEnrolledText() {
+        return waitlist > 0 ? enrolled + " (+" + waitlist + ")" : Integer.toString(enrolled);
     }
 
-    /**
-     * Parses capacity string and returns numeric value.
-     * 
-     * @return Capacity as integer, or 0 if parsing fails
-     */
-    public int getCapacityCount() {
-        return parsePlainNumber(capacity);
+    public String getCapacityText() {
+        return Integer.toString(capacity);
     }
 
     /**
-     * Parses enrollment string that may include waitlist notation.
-     * 
-     * @param raw Enrollment string (e.g., "115" or "115 (+31)")
-     * @return Total count (base + waitlist), or 0 if parsing fails
+     * Sets enrollment from CourseSys display strings.
+     *
+     * Only for snapshots stored before enrollment was kept as numbers.
+     *
+     * @param enrolledRaw e.g. "115" or "115 (+31)"
+     * @param capacityRaw e.g. "100"
      */
-    private int parseWithWaitlist(String raw) {
-        if (raw == null) return 0;
+    public void setEnrollmentText(String enrolledRaw, String capacityRaw) {
+        int enrolled = 0;
+        int waitlist = 0;
 
-        // Match numbers like "115", "115 (+31)"
-        // Groups: base, waitlist (optional)
-        Pattern p = Pattern.compile("(\\d+)(?:\\s*\\(\\+(\\d+)\\))?");
-        Matcher m = p.matcher(raw.trim());
+        if (enrolledRaw != null) {
+            // "115 (+31)": base before '+', waitlist after
+            int plus = enrolledRaw.indexOf('+');
+            int baseEnd = plus >= 0 ? plus : enrolledRaw.length();
+            enrolled = firstNumber(enrolledRaw, 0, baseEnd);
+            waitlist = plus >= 0 ? firstNumber(enrolledRaw, plus + 1, enrolledRaw.length()) : 0;
+        }
 
-        if (!m.matches()) return 0;
+        int capacity = capacityRaw != null ? firstNumber(capacityRaw, 0, capacityRaw.length()) : 0;
 
-        int base = Integer.parseInt(m.group(1));
-        int waitlist = (m.group(2) != null) ? Integer.parseInt(m.group(2)) : 0;
+        setEnrollment(enrolled, waitlist, capacity);
+    }
 
-        return base + waitlist;
+    /**
+     * Total enrolled count including waitlist.
+     *
+     *   "96"         → 96
+     *   "115 (+31)"  → 146 (115 + 31 waitlist)
+     */
+    public int getEnrolledCount() {
+        return enrolled + waitlist;
+    }
+
+    public int getCapacityCount() {
+        return capacity;
     }
 
    /**
-     * Calculates enrollment load percentage.
-     * 
-     * Formula: (enrolled / capacity) * 100
-     * 
+     * Enrollment load percentage.
+     *
+     * Formula: (enrolled + waitlist) / capacity * 100
+     *
      * @return Load percentage rounded to nearest whole number,
      *         or 0 if capacity is 0 or invalid
-     *         
+     *
      * Example:
      *   enrolled=96, capacity=100  → 96%
      *   enrolled=115 (+31), capacity=100 → 146% (overenrolled)
      */
     public Long getLoadPercent() {
-        int enrolled = getEnrolledCount();   // includes waitlist
-        int capacity = getCapacityCount();
-
-        if (capacity <= 0) return 0L;
-
-        return Math.round((enrolled * 100.0) / capacity);
+        return loadPercent;
     }
 
     /**
-     * Parses a plain numeric string.
-     * 
-     * @param raw Numeric string (e.g., "100")
-     * @return Parsed integer, or 0 if parsing fails
+     * Value of the first run of digits in s[from, to), or 0 if none.
+     *
+     *   "115 "   → 115
+     *   " (+31)" → 31
      */
-    private int parsePlainNumber(String raw) {
-        if (raw == null) return 0;
-
-        Pattern p = Pattern.compile("(\\d+)");
-        Matcher m = p.matcher(raw.trim());
-
-        if (!m.find()) return 0;
-
-        return Integer.parseInt(m.group(1));
+    private static int firstNumber(String s, int from, int to) {
+        int i = from;
+        while (i < to && !isDigit(s.charAt(i))) {
+            i++;
+        }
+
+        int value = 0;
+        while (i < to && isDigit(s.charAt(i))) {
+            value = value * 10 + (s.charAt(i) - '0');
+            i++;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -46,4 +46,11 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     @Query(value = "SELECT * FROM bookmarks WHERE user_id = CAST(:userId AS UUID)", 
            nativeQuery = true)
     List<Bookmark> findAllByUserId(@Param("userId") UUID userId);
+
+    // Bookmark count per course for one semester: rows of [course_id, count]
+    @Query(value = "SELECT course_id, COUNT(*) FROM bookmarks " +
+                   "WHERE semester_code = :semesterCode " +
+                   "GROUP BY course_id",
+           nativeQuery = true)
+    List<Object[]> countByCourseForSemester(@Param("semesterCode") Long semesterCode);
 }
\ No newline at end of file
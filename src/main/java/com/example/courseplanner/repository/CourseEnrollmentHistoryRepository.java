@@ -0,0 +1,29 @@
+// src/main/java/com/example/courseplanner/repository/CourseEnrollmentHistoryRepository.java
+package com.example.courseplanner.repository;
+
+import com.example.courseplanner.entity.CourseEnrollmentHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourseEnrollmentHistoryRepository extends JpaRepository<CourseEnrollmentHistory, Long> {
+    
+    // Range scan on (course_id, semester_code), oldest → newest
+    List<CourseEnrollmentHistory> findByCourseIdAndSemesterCodeBetweenOrderBySemesterCodeAsc(
+        Long courseId,
+        Long fromSemesterCode,
+        Long toSemesterCode
+    );
+
+    // Crawler coverage: rows materialized in the window
+    long countBySemesterCodeBetween(Long fromSemesterCode, Long toSemesterCode);
+
+    // Crawler: which of these courses already have rows in the window
+    List<CourseEnrollmentHistory> findByCourseIdInAndSemesterCodeBetween(
+        Collection<Long> courseIds,
+        Long fromSemesterCode,
+        Long toSemesterCode
+    );
+}
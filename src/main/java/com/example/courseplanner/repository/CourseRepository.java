@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +31,24 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     WHERE c.department.deptId = :deptId
 """)
     List<ApiCourseDTO> findByDeptId(Long deptId);
+
+    @Query("""
+    SELECT new com.example.courseplanner.dto.ApiCourseDTO(
+        c.courseId,
+        c.department.deptId,
+        c.courseNumber,
+        c.title,
+        c.description,
+        c.units,
+        c.degreeLevel,
+        c.prerequisites,
+        c.corequisites,
+        c.designation
+    )
+    FROM Course c
+    ORDER BY c.courseId
+""")
+    List<ApiCourseDTO> findAllCourseDTOs();
     
     @Query("SELECT c FROM Course c WHERE c.department.deptId = :deptId AND c.courseNumber = :courseNumber")
     Optional<Course> findByDeptIdAndCourseNumber(
@@ -45,4 +64,12 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     """)
     Optional<Course> findByIdWithDepartment(@Param("courseId") Long courseId);
 
+    @Query("""
+        SELECT c
+        FROM Course c
+        JOIN FETCH c.department
+        WHERE c.courseId IN :courseIds
+    """)
+    List<Course> findAllByIdWithDepartment(@Param("courseIds") Collection<Long> courseIds);
+
 }
\ No newline at end of file
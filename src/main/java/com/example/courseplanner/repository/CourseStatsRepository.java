@@ -2,8 +2,14 @@
 package com.example.courseplanner.repository;
 
 import com.example.courseplanner.entity.CourseStats;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,27 @@ public interface CourseStatsRepository extends JpaRepository<CourseStats, Long>
     
     // Find stats for a specific course
     Optional<CourseStats> findByCourseCourseId(Long courseId);
-}
\ No newline at end of file
+
+    // Same, row-locked for an incremental update (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CourseStats s WHERE s.course.courseId = :courseId")
+    Optional<CourseStats> findByCourseIdForUpdate(@Param("courseId") Long courseId);
+
+    // Creates an empty stats row unless one exists (safe under concurrent writers)
+    @Modifying
+    @Query(value = "INSERT INTO course_stats (course_id, total_enrollment, total_capacity, offered_terms) " +
+                   "VALUES (:courseId, 0, 0, '{}'::jsonb) " +
+                   "ON CONFLICT (course_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("courseId") Long courseId);
+
+    // All stats for a department in one query (course fetched in the same join)
+    @Query("""
+        SELECT s
+        FROM CourseStats s
+        JOIN FETCH s.course c
+        WHERE c.department.deptId = :deptId
+        ORDER BY c.courseNumber
+    """)
+    List<CourseStats> findAllByDeptIdWithCourse(@Param("deptId") Long deptId);
+}
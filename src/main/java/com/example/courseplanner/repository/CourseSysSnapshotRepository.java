@@ -0,0 +1,18 @@
+// src/main/java/com/example/courseplanner/repository/CourseSysSnapshotRepository.java
+package com.example.courseplanner.repository;
+
+import com.example.courseplanner.entity.CourseSysSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface CourseSysSnapshotRepository extends JpaRepository<CourseSysSnapshot, Long> {
+    
+    // Find stored sections for one course in one semester
+    Optional<CourseSysSnapshot> findByDeptCodeAndCourseNumberAndSemesterCode(
+        String deptCode,
+        String courseNumber,
+        Long semesterCode
+    );
+}
@@ -0,0 +1,10 @@
+// src/main/java/com/example/courseplanner/repository/CrawlerCheckpointRepository.java
+package com.example.courseplanner.repository;
+
+import com.example.courseplanner.entity.CrawlerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrawlerCheckpointRepository extends JpaRepository<CrawlerCheckpoint, String> {
+}
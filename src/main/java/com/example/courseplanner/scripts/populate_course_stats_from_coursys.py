@@ -1,3 +1,5 @@
+import argparse
+import re
 import requests
 import psycopg2
 from psycopg2.extras import Json
@@ -8,8 +10,12 @@ from datetime import datetime
 # ==========================
 COURSESYS_BROWSE = "https://coursys.sfu.ca/browse/"
 
-YEARS = ["2023", "2024", "2025"]
-TERMS = ["spring", "summer", "fall"]
+# Same window as the app (course-stats.window-semesters): the last N
+# closed semesters before the current term. Keep the two in sync.
+WINDOW_SEMESTERS = 9
+
+# Semester code = (year - 1900) * 10 + term digit, e.g. Fall 2024 → 1247
+TERM_DIGITS = {"spring": 1, "summer": 4, "fall": 7}
 
 DB_HOST = "your-db-host.example.com"
 DB_NAME = "postgres"
@@ -23,16 +29,43 @@ HEADERS = {
 # ==========================
 # HELPERS
 # ==========================
+def first_number(text):
+    match = re.search(r"\d+", text)
+    return int(match.group()) if match else 0
+
 def parse_enrollment(text):
     """
-    Parse '96/100' -> (96, 100)
+    Parse CourseSys enrollment, counting the waitlist as enrolled
+    (same rule as the app's CourseSysResponseParser):
+      '96/100'        -> (96, 100)
+      '115 (+31)/100' -> (146, 100)
     """
-    try:
-        enrolled, capacity = text.split("/")
-        return int(enrolled), int(capacity)
-    except Exception:
+    if not text:
         return 0, 0
 
+    enrolled_part, _, capacity_part = text.partition("/")
+    base, plus, waitlist = enrolled_part.partition("+")
+
+    enrolled = first_number(base) + (first_number(waitlist) if plus else 0)
+    return enrolled, first_number(capacity_part)
+
+def previous_semester(year, term):
+    order = ["spring", "summer", "fall"]
+    i = order.index(term)
+    return (year - 1, "fall") if i == 0 else (year, order[i - 1])
+
+def window_semesters(current_year, current_term, count):
+    """
+    The last `count` closed semesters before the current term, oldest first:
+    [(year, term, semester_code), ...]
+    """
+    semesters = []
+    year, term = current_year, current_term
+    for _ in range(count):
+        year, term = previous_semester(year, term)
+        semesters.append((year, term, (year - 1900) * 10 + TERM_DIGITS[term]))
+    return list(reversed(semesters))
+
 # ==========================
 # DB HELPERS
 # ==========================
@@ -48,6 +81,17 @@ def get_courses(cur):
     """)
     return cur.fetchall()
 
+def get_current_term(cur):
+    cur.execute("""
+        SELECT year, term
+        FROM terms
+        WHERE is_current = TRUE
+    """)
+    row = cur.fetchone()
+    if row is None:
+        raise SystemExit("No current term in the terms table")
+    return int(row[0]), row[1].lower()
+
 def course_stats_exists(cur, course_id):
     cur.execute("""
         SELECT 1
@@ -83,6 +127,11 @@ def fetch_coursys_sections(dept, number, semester_code):
 # MAIN
 # ==========================
 def main():
+    args = argparse.ArgumentParser(description="Seed course_stats from CourseSys")
+    args.add_argument("--window-semesters", type=int, default=WINDOW_SEMESTERS,
+                      help="closed semesters to aggregate (must match course-stats.window-semesters)")
+    window_size = args.parse_args().window_semesters
+
     print("\n===== POPULATE COURSE_STATS FROM COURSESYS START =====")
     print(f"Started at: {datetime.now()}\n")
 
@@ -99,6 +148,10 @@ def main():
             courses = get_courses(cur)
             print(f"[DB] Loaded {len(courses)} courses\n")
 
+            current_year, current_term = get_current_term(cur)
+            window = window_semesters(current_year, current_term, window_size)
+            print(f"[WINDOW] {window[0][2]}..{window[-1][2]} ({window_size} closed semesters)\n")
+
             for course_id, dept, number in courses:
                 if course_stats_exists(cur, course_id):
                     print(f"[SKIP] {dept.upper()} {number} (stats exist)")
@@ -108,40 +161,33 @@ def main():
                 total_capacity = 0
                 offered_terms = {}
 
-                for year in YEARS:
-                    for term in TERMS:
-                        semester_code = f"{year}{term[0]}a" if term == "fall" else f"{year}{term[:2]}"
-                        # NOTE: SFU semester codes are inconsistent; we normalize below
-
-                        # safer mapping
-                        if term == "spring":
-                            semester_code = f"{year}sp"
-                        elif term == "summer":
-                            semester_code = f"{year}su"
-                        else:
-                            semester_code = f"{year}fa"
+                for year, term, semester_code in window:
+                    rows = fetch_coursys_sections(dept, number, semester_code)
 
-                        rows = fetch_coursys_sections(dept, number, semester_code)
+                    if not rows:
+                        continue
 
-                        if not rows:
-                            continue
+                    term_enrolled = 0
+                    term_capacity = 0
 
-                        term_enrolled = 0
-                        term_capacity = 0
+                    for r in rows:
+                        enrolled, capacity = parse_enrollment(r[3])
+                        term_enrolled += enrolled
+                        term_capacity += capacity
 
-                        for r in rows:
-                            enrolled, capacity = parse_enrollment(r[3])
-                            term_enrolled += enrolled
-                            term_capacity += capacity
+                    # A semester counts only if it had capacity (same rule as the app)
+                    if term_capacity > 0:
+                        offered_terms.setdefault(str(year), []).append(term)
+                        total_enrollment += term_enrolled
+                        total_capacity += term_capacity
 
-                        if term_capacity > 0:
-                            offered_terms.setdefault(year, []).append(term)
-                            total_enrollment += term_enrolled
-                            total_capacity += term_capacity
+                # Nothing offered in the window → no row (the app omits such courses too)
+                if not offered_terms:
+                    print(f"[SKIP] {dept.upper()} {number} (not offered in window)")
+                    continue
 
-                load_percent = None
-                if total_capacity > 0:
-                    load_percent = round((total_enrollment / total_capacity) * 100, 2)
+                # load_percent is DECIMAL(5,2): cap to fit, like the app
+                load_percent = round(min((total_enrollment / total_capacity) * 100, 999.99), 2)
 
                 print(f"[DB] INSERT stats {dept.upper()} {number}")
 
@@ -0,0 +1,108 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.model.CatalogSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * =========================================================
+ * Catalog Response Cache
+ *
+ * Keeps catalog responses (department list, course list per
+ * department) as ready-made UTF-8 JSON bytes plus a gzip copy,
+ * so hot endpoints skip Jackson entirely after the first call.
+ *
+ * Entries belong to one catalog version: when CatalogService
+ * publishes a new snapshot, the first lookup against it drops
+ * everything cached for the old version.
+ * =========================================================
+ */
+@Component
+public class CatalogResponseCache {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile VersionedEntries entries = new VersionedEntries("", new ConcurrentHashMap<>());
+
+    public CatalogResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the serialized body for a catalog resource, building it on first use.
+     *
+     * @param catalog Snapshot the body is built from
+     * @param key Resource key (e.g. "departments", "courses:12")
+     * @param body Extracts the object to serialize from the snapshot
+     * @return JSON bytes (and lazily, their gzip form)
+     */
+    public SerializedBody get(CatalogSnapshot catalog, String key, Function<CatalogSnapshot, Object> body) {
+        VersionedEntries current = entries;
+        if (!current.version().equals(catalog.version())) {
+            synchronized (this) {
+                current = entries;
+                if (!current.version().equals(catalog.version())) {
+                    current = new VersionedEntries(catalog.version(), new ConcurrentHashMap<>());
+                    entries = current;
+                }
+            }
+        }
+
+        return current.bodies().computeIfAbsent(key, k -> new SerializedBody(serialize(body.apply(catalog))));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+    }
+
+    /**
+     * One serialized response: UTF-8 JSON, with the gzip form built on first request.
+     */
+    public static final class SerializedBody {
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        SerializedBody(byte[] json) {
+            this.json = json;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzip() {
+            byte[] g = gzip;
+            if (g == null) {
+                g = compress(json);
+                gzip = g;
+            }
+            return g;
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private record VersionedEntries(String version, Map<String, SerializedBody> bodies) { }
+}
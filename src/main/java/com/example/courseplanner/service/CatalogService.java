@@ -0,0 +1,204 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.dto.ApiCourseDTO;
+import com.example.courseplanner.dto.ApiDepartmentDTO;
+import com.example.courseplanner.entity.Department;
+import com.example.courseplanner.model.CatalogSnapshot;
+import com.example.courseplanner.repository.CourseRepository;
+import com.example.courseplanner.repository.DepartmentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * =========================================================
+ * Catalog Service
+ *
+ * Serves departments and courses from an immutable in-memory
+ * snapshot instead of the database. The catalog only changes
+ * when the nightly scraper runs, so:
+ *
+ * - The snapshot is built once at startup
+ * - It is rebuilt on a fixed schedule (catalog.refresh-ms) and
+ *   swapped in atomically; readers never see a half-built catalog
+ * - If the rebuilt catalog hashes to the same version, the old
+ *   snapshot is kept so anything derived from it stays valid
+ * - If a rebuild fails, the previous snapshot keeps being served
+ * =========================================================
+ */
+@Service
+public class CatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogService.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final CourseRepository courseRepository;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    public CatalogService(DepartmentRepository departmentRepository, CourseRepository courseRepository) {
+        this.departmentRepository = departmentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * @return The current catalog snapshot (built on first use if startup loading failed)
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = current.get();
+                if (snapshot == null) {
+                    snapshot = build();
+                    current.set(snapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return Departments sorted by code (case-insensitive)
+     */
+    public List<ApiDepartmentDTO> getDepartments() {
+        return snapshot().departments();
+    }
+
+    /**
+     * @param deptId Department id
+     * @return Courses in the department, or empty if the department doesn't exist
+     */
+    public Optional<List<ApiCourseDTO>> getCourses(long deptId) {
+        return snapshot().coursesFor(deptId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot could not be built at startup, will retry on first use: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${catalog.refresh-ms:900000}",
+        initialDelayString = "${catalog.refresh-ms:900000}"
+    )
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the snapshot and swaps it in if the catalog changed.
+     *
+     * @return true if a new version was published
+     */
+    public synchronized boolean refresh() {
+        CatalogSnapshot fresh;
+        try {
+            fresh = build();
+        } catch (RuntimeException e) {
+            if (current.get() == null) {
+                throw e;
+            }
+            log.warn("Catalog refresh failed, keeping version {}: {}", current.get().version(), e.getMessage());
+            return false;
+        }
+
+        CatalogSnapshot previous = current.get();
+        if (previous != null && previous.version().equals(fresh.version())) {
+            return false;
+        }
+
+        current.set(fresh);
+        log.info("Catalog snapshot {} published ({} departments)", fresh.version(), fresh.departments().size());
+        return true;
+    }
+
+    // -----------------------------
+    // Build
+    // -----------------------------
+
+    private CatalogSnapshot build() {
+        List<Department> departments = new ArrayList<>(departmentRepository.findAll());
+        departments.sort(Comparator
+                .comparing(Department::getDeptCode, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Department::getDeptId));
+
+        Map<Long, List<ApiCourseDTO>> coursesByDeptId = new LinkedHashMap<>();
+        List<ApiDepartmentDTO> departmentDTOs = new ArrayList<>(departments.size());
+
+        for (Department department : departments) {
+            departmentDTOs.add(new ApiDepartmentDTO(
+                    department.getDeptId(), department.getDeptCode(), department.getName()));
+            coursesByDeptId.put(department.getDeptId(), new ArrayList<>());
+        }
+
+        // Ordered by course id, so the version hash is stable
+        for (ApiCourseDTO course : courseRepository.findAllCourseDTOs()) {
+            List<ApiCourseDTO> courses = coursesByDeptId.get(course.getDeptId());
+            if (courses == null) {
+                continue;
+            }
+            if (course.getUnits() == null) {
+                course.setUnits(0L);
+            }
+            courses.add(course);
+        }
+
+        coursesByDeptId.replaceAll((deptId, courses) -> Collections.unmodifiableList(courses));
+
+        return new CatalogSnapshot(
+                version(departmentDTOs, coursesByDeptId),
+                System.currentTimeMillis(),
+                Collections.unmodifiableList(departmentDTOs),
+                Collections.unmodifiableMap(coursesByDeptId)
+        );
+    }
+
+    private String version(List<ApiDepartmentDTO> departments, Map<Long, List<ApiCourseDTO>> coursesByDeptId) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+
+        for (ApiDepartmentDTO d : departments) {
+            update(digest, d.getDeptId(), d.getDeptCode(), d.getName());
+            for (ApiCourseDTO c : coursesByDeptId.get(d.getDeptId())) {
+                update(digest, c.getCourseId(), c.getCourseNumber(), c.getTitle(), c.getDescription(),
+                        c.getUnits(), c.getDegreeLevel(), c.getPrerequisites(), c.getCorequisites(),
+                        c.getDesignation());
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.courseplanner.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * =========================================================
+ * Course Demand Tracker
+ *
+ * Counts user requests for live-semester course data, per
+ * course (dept + number). CourseSysClient records a request;
+ * LiveRefreshScheduler drains the counts on every tick and
+ * folds them into its decayed popularity scores.
+ *
+ * Recording is lock-free and allocation-light so it can sit
+ * on the request path.
+ * =========================================================
+ */
+@Component
+public class CourseDemandTracker {
+
+    private final ConcurrentHashMap<CourseRef, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Records one request for a course's live data.
+     *
+     * @param dept Department code (upper case)
+     * @param courseNumber Course number (upper case)
+     */
+    public void record(String dept, String courseNumber) {
+        counts.computeIfAbsent(new CourseRef(dept, courseNumber), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns and resets the counts recorded since the previous drain.
+     */
+    public Map<CourseRef, Long> drain() {
+        Map<CourseRef, Long> drained = new HashMap<>();
+        counts.forEach((course, adder) -> {
+            long n = adder.sumThenReset();
+            if (n > 0) {
+                drained.put(course, n);
+            }
+        });
+        counts.entrySet().removeIf(e -> e.getValue().sum() == 0);
+        return drained;
+    }
+
+    /**
+     * A course independent of semester.
+     */
+    public record CourseRef(String dept, String courseNumber) { }
+}
@@ -0,0 +1,344 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.dto.*;
+import com.example.courseplanner.entity.Course;
+import com.example.courseplanner.entity.CourseDiggerStats;
+import com.example.courseplanner.entity.Term;
+import com.example.courseplanner.model.CourseSysBrowseResult;
+import com.example.courseplanner.model.CourseSysKey;
+import com.example.courseplanner.model.CourseSysOffering;
+import com.example.courseplanner.repository.CourseDiggerStatsRepository;
+import com.example.courseplanner.repository.CourseRepository;
+import com.example.courseplanner.repository.TermRepository;
+import com.example.courseplanner.utils.GradeUtil;
+import com.example.courseplanner.utils.SemesterUtil;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * =========================================================
+ * Course Page Service
+ *
+ * Builds the payloads the course page shows:
+ *
+ * - offerings: sections for the last 12 semesters
+ * - offering detail: course info + sections for one semester
+ * - grade distribution: CourseDiggers data
+ * - enrollment history: totals per semester for a range
+ *
+ * The standalone endpoints (BrowseController, GraphController)
+ * use the mapping methods here. getCoursePage builds all four
+ * from shared lookups:
+ *
+ * - course + department, terms, CourseDiggers stats: once
+ * - CourseSys: every distinct semester fetched at most once.
+ *   Semesters the history table can't answer are folded into
+ *   the same batch as the offerings / detail semesters.
+ * =========================================================
+ */
+@Service
+public class CoursePageService {
+
+    // Semesters shown in the offerings list (4 years × 3 semesters)
+    public static final int OFFERINGS_SEMESTERS = 12;
+
+    private final CourseRepository courseRepository;
+    private final TermRepository termRepository;
+    private final CourseDiggerStatsRepository courseDiggerStatsRepository;
+    private final CourseSysClient courseSysClient;
+    private final EnrollmentHistoryService enrollmentHistoryService;
+
+    public CoursePageService(
+        CourseRepository courseRepository,
+        TermRepository termRepository,
+        CourseDiggerStatsRepository courseDiggerStatsRepository,
+        CourseSysClient courseSysClient,
+        EnrollmentHistoryService enrollmentHistoryService
+    ) {
+        this.courseRepository = courseRepository;
+        this.termRepository = termRepository;
+        this.courseDiggerStatsRepository = courseDiggerStatsRepository;
+        this.courseSysClient = courseSysClient;
+        this.enrollmentHistoryService = enrollmentHistoryService;
+    }
+
+    /**
+     * The term the course page counts back from.
+     *
+     * @param year e.g. 2026
+     * @param term e.g. "spring"
+     * @param enrolling true if this is the enrolling term (false: fell back to the current term)
+     */
+    public record Window(long year, String term, boolean enrolling) { }
+
+    /**
+     * The aggregate page plus the semesters and CourseSys results it was
+     * built from (for Cache-Control).
+     */
+    public record CoursePage(
+        ApiCoursePageDTO body,
+        List<Long> semesterCodes,
+        Collection<CourseSysBrowseResult> browses
+    ) { }
+
+    /**
+     * Enrolling term if there is one, otherwise the current term.
+     *
+     * @throws ResponseStatusException 500 if neither is set
+     */
+    public Window window() {
+        Optional<Term> enrolling = termRepository.findByIsEnrollingTrue();
+        if (enrolling.isPresent()) {
+            return new Window(enrolling.get().getYear(), enrolling.get().getTerm(), true);
+        }
+
+        Term current = termRepository.findByIsCurrentTrue()
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "No term data"));
+        return new Window(current.getYear(), current.getTerm(), false);
+    }
+
+    /**
+     * Everything the course page shows, in one go.
+     *
+     * @param deptId Department id (must be the course's department)
+     * @param courseId Course id
+     * @param semesterCode Semester for the offering detail (null = newest semester in the window)
+     * @param range Enrollment history range ("1yr", "3yr", "5yr")
+     * @throws ResponseStatusException 404 if the course doesn't exist in that department
+     */
+    public CoursePage getCoursePage(Long deptId, Long courseId, Long semesterCode, String range) {
+        // 1. Resolve the course once
+        Course course = courseRepository.findByIdWithDepartment(courseId)
+                .filter(c -> c.getDepartment().getDeptId().equals(deptId))
+                .orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+
+        String dept = course.getDepartment().getDeptCode();   // CMPT
+        String number = course.getCourseNumber();             // 276
+
+        // 2. Semesters for each part (newest first)
+        Window window = window();
+        List<SemesterUtil.Prev> offeringSemesters =
+                SemesterUtil.recentSemesters(window.year(), window.term(), OFFERINGS_SEMESTERS);
+        List<SemesterUtil.Prev> historySemesters = SemesterUtil.recentSemesters(
+                window.year(), window.term(), SemesterUtil.semesterCountForRange(range));
+        long detailSemesterCode = semesterCode != null
+                ? semesterCode
+                : offeringSemesters.get(0).semesterCode();
+
+        Set<CourseSysKey> pageKeys = new LinkedHashSet<>();
+        for (SemesterUtil.Prev semester : offeringSemesters) {
+            pageKeys.add(CourseSysKey.of(dept, number, semester.semesterCode()));
+        }
+        CourseSysKey detailKey = CourseSysKey.of(dept, number, detailSemesterCode);
+        pageKeys.add(detailKey);
+
+        // 3. History first: whatever it needs from CourseSys goes in one batch with the page's keys
+        Map<CourseSysKey, CourseSysBrowseResult> browses = new HashMap<>();
+        List<ApiEnrollmentDataPointDTO> history = new ArrayList<>(enrollmentHistoryService.getHistory(
+                course,
+                historySemesters,
+                missing -> {
+                    Set<CourseSysKey> batch = new LinkedHashSet<>(missing);
+                    batch.addAll(pageKeys);
+                    browses.putAll(courseSysClient.fetchCourseSectionsBatch(batch));
+                    return browses;
+                }));
+        Collections.reverse(history);   // oldest → newest, like /enrollment-history
+
+        // History came entirely from the table → fetch the page's keys now
+        if (!browses.keySet().containsAll(pageKeys)) {
+            browses.putAll(courseSysClient.fetchCourseSectionsBatch(pageKeys));
+        }
+
+        // 4. Build each part from the shared results
+        List<CourseSysBrowseResult> offeringBrowses = new ArrayList<>(offeringSemesters.size());
+        for (SemesterUtil.Prev semester : offeringSemesters) {
+            offeringBrowses.add(browses.get(CourseSysKey.of(dept, number, semester.semesterCode())));
+        }
+
+        CourseDiggerStats stats = courseDiggerStatsRepository.findByCourseCourseId(courseId).orElse(null);
+
+        ApiCoursePageDTO page = new ApiCoursePageDTO(
+                toOfferings(offeringSemesters, offeringBrowses, window.enrolling()),
+                toOfferingDetail(deptId, course, dept, browses.get(detailKey), stats),
+                stats != null ? toGradeDistribution(course, stats) : null,
+                history
+        );
+
+        Set<Long> semesterCodes = new LinkedHashSet<>();
+        offeringSemesters.forEach(s -> semesterCodes.add(s.semesterCode()));
+        historySemesters.forEach(s -> semesterCodes.add(s.semesterCode()));
+        semesterCodes.add(detailSemesterCode);
+
+        return new CoursePage(page, List.copyOf(semesterCodes), List.copyOf(browses.values()));
+    }
+
+    // -----------------------------
+    // Payload mapping (shared with the standalone endpoints)
+    // -----------------------------
+
+    /**
+     * Offerings list: every section of every semester, newest semester first.
+     *
+     * @param semesters Semesters, newest first
+     * @param browses One CourseSys result per semester, same order
+     * @param enrollingFirst true if semesters.get(0) is the enrolling term
+     */
+    public List<ApiCourseOfferingDTO> toOfferings(
+        List<SemesterUtil.Prev> semesters,
+        List<CourseSysBrowseResult> browses,
+        boolean enrollingFirst
+    ) {
+        List<ApiCourseOfferingDTO> results = new ArrayList<>();
+
+        for (int i = 0; i < semesters.size(); i++) {
+            SemesterUtil.Prev semester = semesters.get(i);
+            CourseSysBrowseResult browse = browses.get(i);
+
+            boolean isEnrolling = (i == 0 && enrollingFirst);
+
+            for (CourseSysOffering offering : browse.getOfferings()) {
+                ApiCourseOfferingDTO dto = new ApiCourseOfferingDTO(
+                        offering.getSection(),
+                        offering.getInfoUrl(),
+                        SemesterUtil.capitalize(semester.term()), // Spring
+                        semester.year(),
+                        semester.semesterCode(), // 1247
+                        isEnrolling,
+                        offering.getCampus(),
+                        offering.getInstructor(),
+                        offering.getEnrolledText(),
+                        offering.getCapacityText(),
+                        offering.getLoadPercent()
+                );
+                dto.setFetchedAt(browse.getFetchedAt());
+                dto.setStale(browse.isStale());
+
+                results.add(dto);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Offering detail: course metadata, CourseDiggers summary and one semester's sections.
+     *
+     * @param deptId Department id (echoed back)
+     * @param course Course
+     * @param deptCode Department code (e.g. "CMPT")
+     * @param browse CourseSys result for the semester
+     * @param stats CourseDiggers stats (may be null)
+     */
+    public ApiOfferingDetailDTO toOfferingDetail(
+        Long deptId,
+        Course course,
+        String deptCode,
+        CourseSysBrowseResult browse,
+        CourseDiggerStats stats
+    ) {
+        // ---- Map sections ----
+        List<ApiCourseOfferingDTO> sections = browse.getOfferings().stream()
+                .map(o -> {
+                    ApiCourseOfferingDTO dto = new ApiCourseOfferingDTO(
+                            o.getSection(),
+                            o.getInfoUrl(),
+                            browse.getSemester(),
+                            browse.getYear(),
+                            browse.getSemesterCode(),
+                            false,
+                            o.getCampus(),
+                            o.getInstructor(),
+                            o.getEnrolledText(),
+                            o.getCapacityText(),
+                            o.getLoadPercent()
+                    );
+                    dto.setFetchedAt(browse.getFetchedAt());
+                    dto.setStale(browse.isStale());
+                    return dto;
+                })
+                .toList();
+
+        // ---- Resolve campus (from sections if available) ----
+        String campus = sections.isEmpty()
+                ? null
+                : sections.get(0).getLocation();
+
+        // ---- Resolve CourseDiggers stats ----
+        String medianGrade = null;
+        double failRate = 0.0;
+        Map<String, Long> gradeDistribution = null;
+
+        if (stats != null) {
+            medianGrade = stats.getMedianGrade();
+
+            if (stats.getFailRate() != null) {
+                failRate = stats.getFailRate().doubleValue();
+            }
+        }
+
+        if (stats != null && stats.getGradeDistribution() != null) {
+            gradeDistribution = new HashMap<>();
+
+            for (Map.Entry<String, Object> entry : stats.getGradeDistribution().entrySet()) {
+                Object value = entry.getValue();
+
+                if (value instanceof Number) {
+                    gradeDistribution.put(entry.getKey(), ((Number) value).longValue());
+                }
+            }
+        }
+
+        // ---- Resolve outline URL ----
+        String courseNumber = course.getCourseNumber();
+        String outlineUrl =
+                "https://www.sfu.ca/outlines.html?dept="
+                        + deptCode
+                        + "&number=" + courseNumber;
+
+        return new ApiOfferingDetailDTO(
+                deptId,
+                course.getCourseId(),
+                deptCode,
+                courseNumber,
+                course.getTitle(),
+                browse.getYear(),
+                browse.getSemester(),
+                campus,
+                medianGrade,
+                failRate,
+                gradeDistribution,
+                course.getDescription(),
+                course.getPrerequisites(),
+                course.getCorequisites(),
+                Optional.ofNullable(course.getUnits()).orElse(0L),
+                course.getDegreeLevel(),
+                course.getDesignation(),
+                sections,
+                outlineUrl
+        );
+    }
+
+    /**
+     * Grade distribution chart data.
+     *
+     * @param course Course (with department loaded)
+     * @param stats CourseDiggers stats
+     */
+    public ApiGradeDistributionDTO toGradeDistribution(Course course, CourseDiggerStats stats) {
+        return new ApiGradeDistributionDTO(
+            course.getDepartment().getDeptCode(),
+            course.getCourseNumber(),
+            course.getTitle(),
+            stats.getMedianGrade(),
+            stats.getFailRate(),
+            GradeUtil.letterGradeCounts(stats.getGradeDistribution())
+        );
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.entity.CourseEnrollmentHistory;
+import com.example.courseplanner.entity.CourseStats;
+import com.example.courseplanner.repository.CourseEnrollmentHistoryRepository;
+import com.example.courseplanner.repository.CourseStatsRepository;
+import com.example.courseplanner.utils.SemesterUtil;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * =========================================================
+ * Course Stats Service
+ *
+ * Keeps the course_stats aggregate up to date.
+ *
+ * The aggregate covers one bounded window: the last
+ * course-stats.window-semesters closed semesters (default 9,
+ * i.e. 3 years). Every row means the same span, whichever
+ * writer produced it (this service or
+ * populate_course_stats_from_coursys.py, which uses the same
+ * window and rules):
+ *
+ * - A semester counts if its total capacity is > 0
+ * - Enrolled includes the waitlist ("115 (+31)" → 146)
+ * - offered_terms lists the counted semesters
+ *
+ * A course is recomputed from its course_enrollment_history
+ * rows in the window (one indexed range scan, at most window
+ * rows) whenever a closed semester is materialized for it, and
+ * by the crawler as it walks the catalog, so semesters that
+ * fall out of the window at term rollover are evicted. The
+ * stats row is locked (SELECT ... FOR UPDATE) before the
+ * history is read, so concurrent writers can't lose an update.
+ * =========================================================
+ */
+@Service
+public class CourseStatsService {
+
+    private final CourseStatsRepository courseStatsRepository;
+    private final CourseEnrollmentHistoryRepository historyRepository;
+    private final TermService termService;
+    private final int windowSemesters;
+
+    public CourseStatsService(
+        CourseStatsRepository courseStatsRepository,
+        CourseEnrollmentHistoryRepository historyRepository,
+        TermService termService,
+        @Value("${course-stats.window-semesters:9}") int windowSemesters
+    ) {
+        this.courseStatsRepository = courseStatsRepository;
+        this.historyRepository = historyRepository;
+        this.termService = termService;
+        this.windowSemesters = Math.max(1, windowSemesters);
+    }
+
+    /**
+     * Semesters the aggregate covers (both inclusive).
+     *
+     * @param oldest e.g. 1227
+     * @param newest e.g. 1254 (the last closed semester)
+     */
+    public record Window(long oldest, long newest) {
+
+        boolean contains(long semesterCode) {
+            return semesterCode >= oldest && semesterCode <= newest;
+        }
+    }
+
+    /**
+     * @return The current window, or null if there is no current term
+     */
+    public Window window() {
+        Long current = termService.getCurrentSemesterCode();
+        if (current == null) {
+            return null;
+        }
+
+        long newest = SemesterUtil.previousSemesterCode(current);
+        long oldest = newest;
+        for (int i = 1; i < windowSemesters; i++) {
+            oldest = SemesterUtil.previousSemesterCode(oldest);
+        }
+        return new Window(oldest, newest);
+    }
+
+    /**
+     * Recomputes a course's aggregate after a closed semester was stored for it.
+     * Semesters outside the window change nothing.
+     *
+     * @param courseId Course id
+     * @param semesterCode Closed semester just stored (e.g. 1247)
+     * @return true if the aggregate changed
+     */
+    @Transactional
+    public boolean applySemester(Long courseId, long semesterCode) {
+        Window window = window();
+        if (window == null || !window.contains(semesterCode)) {
+            return false;
+        }
+        return recompute(courseId, window);
+    }
+
+    /**
+     * Recomputes each course's aggregate for the current window (evicts
+     * semesters that have left it).
+     *
+     * @param courseIds Courses to recompute
+     * @return Number of aggregates that changed
+     */
+    @Transactional
+    public int recompute(Collection<Long> courseIds) {
+        Window window = window();
+        if (window == null) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (Long courseId : courseIds) {
+            if (recompute(courseId, window)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private boolean recompute(Long courseId, Window window) {
+        // Lock first, then read history: a concurrent writer's rows are visible once it commits
+        courseStatsRepository.insertIfAbsent(courseId);
+        CourseStats stats = courseStatsRepository.findByCourseIdForUpdate(courseId)
+                .orElseThrow(() -> new IllegalStateException("course_stats row missing for course " + courseId));
+
+        int totalEnrollment = 0;
+        int totalCapacity = 0;
+        // { "2024": ["spring", "fall"], ... }
+        Map<String, Object> offeredTerms = new LinkedHashMap<>();
+
+        for (CourseEnrollmentHistory row : historyRepository
+                .findByCourseIdAndSemesterCodeBetweenOrderBySemesterCodeAsc(courseId, window.oldest(), window.newest())) {
+            int capacity = valueOrZero(row.getTotalCapacity());
+            if (capacity <= 0) {
+                continue; // not offered
+            }
+
+            totalEnrollment += valueOrZero(row.getTotalEnrolled());
+            totalCapacity += capacity;
+
+            String year = String.valueOf(1900 + row.getSemesterCode() / 10);
+            String term = SemesterUtil.decodeSemesterCode(row.getSemesterCode()).term();
+            @SuppressWarnings("unchecked")
+            List<Object> terms = (List<Object>) offeredTerms.computeIfAbsent(year, y -> new ArrayList<>());
+            terms.add(term);
+        }
+
+        // Nothing offered in the window → no stats row (the endpoint omits such courses)
+        if (offeredTerms.isEmpty()) {
+            courseStatsRepository.delete(stats);
+            return true;
+        }
+
+        if (Objects.equals(stats.getTotalEnrollment(), totalEnrollment)
+                && Objects.equals(stats.getTotalCapacity(), totalCapacity)
+                && offeredTerms.equals(stats.getOfferedTerms())) {
+            return false;
+        }
+
+        stats.setTotalEnrollment(totalEnrollment);
+        stats.setTotalCapacity(totalCapacity);
+        stats.setLoadPercent(loadPercent(totalEnrollment, totalCapacity));
+        stats.setOfferedTerms(offeredTerms);
+
+        courseStatsRepository.save(stats);
+        return true;
+    }
+
+    private int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    // load_percent is DECIMAL(5,2): round to 2 places, cap to fit
+    private Double loadPercent(int enrolled, int capacity) {
+        if (capacity <= 0) {
+            return null;
+        }
+        double load = Math.min((enrolled * 100.0) / capacity, 999.99);
+        return BigDecimal.valueOf(load).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
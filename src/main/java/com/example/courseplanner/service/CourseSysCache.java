@@ -0,0 +1,155 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.model.CourseSysBrowseResult;
+import com.example.courseplanner.model.CourseSysKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * =========================================================
+ * CourseSys Result Cache
+ *
+ * In-memory cache of CourseSysBrowseResult keyed by
+ * (dept, courseNumber, semesterCode).
+ *
+ * Two tiers:
+ * - Historical: semesters older than the current term. Their
+ *   data is final, so entries never expire and are only
+ *   evicted (least recently used) when the tier is full.
+ * - Live: current, enrolling and future semesters. Entries
+ *   expire after a short TTL so enrollment counts stay fresh.
+ *   Expired entries are kept (until evicted, or for at most
+ *   stale-max-age) as last known good data, which getStale()
+ *   serves while CourseSys is down.
+ *
+ * Cached results are shared between requests and must be
+ * treated as read-only by callers.
+ * =========================================================
+ */
+@Component
+public class CourseSysCache {
+
+    private final TermService termService;
+    private final long liveTtlMs;
+    private final long staleMaxAgeMs;
+
+    private final Map<CourseSysKey, CourseSysBrowseResult> historical;
+    private final Map<CourseSysKey, LiveEntry> live;
+
+    public CourseSysCache(
+        TermService termService,
+        @Value("${coursesys.cache.historical-max-entries:20000}") int historicalMaxEntries,
+        @Value("${coursesys.cache.live-max-entries:5000}") int liveMaxEntries,
+        @Value("${coursesys.cache.live-ttl-seconds:120}") long liveTtlSeconds,
+        @Value("${coursesys.cache.stale-max-age-seconds:86400}") long staleMaxAgeSeconds
+    ) {
+        this.termService = termService;
+        this.liveTtlMs = liveTtlSeconds * 1000;
+        this.staleMaxAgeMs = staleMaxAgeSeconds * 1000;
+        this.historical = lruMap(historicalMaxEntries);
+        this.live = lruMap(liveMaxEntries);
+    }
+
+    /**
+     * Looks up a cached result.
+     *
+     * @param key Course + semester
+     * @return Cached result, or null if absent or expired
+     */
+    public CourseSysBrowseResult get(CourseSysKey key) {
+        synchronized (historical) {
+            CourseSysBrowseResult result = historical.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        synchronized (live) {
+            LiveEntry entry = live.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    /**
+     * Looks up the last known good result, even if it has expired.
+     *
+     * Only for serving something while CourseSys is unreachable;
+     * callers must flag the result as stale.
+     *
+     * @param key Course + semester
+     * @return Cached result, or null if never cached (or too old to serve)
+     */
+    public CourseSysBrowseResult getStale(CourseSysKey key) {
+        synchronized (historical) {
+            CourseSysBrowseResult result = historical.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        synchronized (live) {
+            LiveEntry entry = live.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() + staleMaxAgeMs < System.currentTimeMillis()) {
+                live.remove(key);
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    /**
+     * Stores a result in the tier matching its semester.
+     *
+     * @param key Course + semester
+     * @param result Parsed CourseSys response (must be a successful fetch)
+     */
+    public void put(CourseSysKey key, CourseSysBrowseResult result) {
+        put(key, result, liveTtlMs);
+    }
+
+    /**
+     * Stores a result, with a custom lifetime if it lands in the live tier.
+     *
+     * Used by the refresh scheduler, which knows when it will next
+     * refresh the key (rarely-viewed courses are kept longer).
+     *
+     * @param key Course + semester
+     * @param result Parsed CourseSys response (must be a successful fetch)
+     * @param liveTtlMs Lifetime in the live tier (ignored for closed semesters)
+     */
+    public void put(CourseSysKey key, CourseSysBrowseResult result, long liveTtlMs) {
+        if (termService.isHistorical(key.semesterCode())) {
+            synchronized (historical) {
+                historical.put(key, result);
+            }
+        } else {
+            synchronized (live) {
+                live.put(key, new LiveEntry(result, System.currentTimeMillis() + liveTtlMs));
+            }
+        }
+    }
+
+    private static <V> Map<CourseSysKey, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CourseSysKey, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record LiveEntry(CourseSysBrowseResult result, long expiresAt) { }
+}
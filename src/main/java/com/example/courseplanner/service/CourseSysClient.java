@@ -4,30 +4,167 @@
  * Fetches live course offering data including sections, enrollment numbers,
  * instructors, and campus locations for specific semesters.
  * 
- * API Endpoint: https://coursys.sfu.ca/browse/
+ * Lookup order: in-memory cache → stored snapshot (closed semesters only)
+ * → CourseSys. Closed semesters fetched from CourseSys are written through
+ * to the coursys_snapshots table so restarted/new nodes start warm.
+ * 
+ * Concurrent cache misses for the same (dept, number, semesterCode) are
+ * coalesced: one caller performs the load, the others wait on its future.
+ * The number of collapsed calls is published as "coursys.fetch.collapsed".
+ * 
+ * Misses are batched: one call covers up to coursesys.batch.max-courses
+ * courses × coursesys.batch.max-semesters semesters. The semester cap
+ * bounds what one failed or slow call can take down, so a course's
+ * offerings list (12 semesters) still comes back partially when one of its
+ * calls fails.
+ * 
+ * Upstream calls go through a circuit breaker: after repeated failures
+ * CourseSys is not called at all for a while (fail fast instead of tying
+ * up threads), then a single probe call tests whether it has recovered.
+ * While CourseSys is unreachable, live semesters are served from the last
+ * known good cached result, flagged stale. State is published as
+ * "coursys.breaker.state" (0 closed, 1 open, 2 half-open).
+ * 
+ * Timing: "coursys.fetch" (fetchCourseSections, tagged dept / historical)
+ * and "coursys.upstream" (each HTTP call, tagged outcome), plus
+ * "coursys.upstream.inflight" so upstream latency can be told apart
+ * from our own queueing.
+ * 
+ * API Endpoint: https://coursys.sfu.ca/browse/ (coursesys.base-url, so load
+ * tests can point it at the local stand-in)
  */
 
 package com.example.courseplanner.service;
 
+import com.example.courseplanner.entity.CourseSysSnapshot;
 import com.example.courseplanner.model.*;
+import com.example.courseplanner.repository.CourseSysSnapshotRepository;
+import com.example.courseplanner.utils.CircuitBreaker;
+import com.example.courseplanner.utils.RequestTiming;
+import com.example.courseplanner.utils.SemesterUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class CourseSysClient {
 
-    private static final String COURSESYS_BROWSE =
-            "https://coursys.sfu.ca/browse/";
+    private static final Logger log = LoggerFactory.getLogger(CourseSysClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String browseUrl;
+    private final ExecutorService executor;
+    private final long fetchTimeoutMs;
+    private final CourseSysCache cache;
+    private final TermService termService;
+    private final CourseSysSnapshotRepository snapshotRepository;
+    private final int batchMaxCourses;
+    private final int batchMaxSemesters;
+    private final CourseDemandTracker demandTracker;
+    private final CourseSysResponseParser responseParser;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger upstreamInFlight = new AtomicInteger();
+    private final CircuitBreaker breaker;
+    private final Counter breakerRejected;
+    private final Counter staleServed;
+
+    // Loads currently in progress, shared by concurrent callers for the same key
+    private final ConcurrentHashMap<CourseSysKey, CompletableFuture<CourseSysBrowseResult>> inFlight =
+            new ConcurrentHashMap<>();
+    private final LongAdder collapsedCalls = new LongAdder();
+
+    public CourseSysClient(
+            RestTemplate restTemplate,
+            @Qualifier("courseSysExecutor") ExecutorService executor,
+            @Value("${coursesys.fetch.timeout-ms:4000}") long fetchTimeoutMs,
+            CourseSysCache cache,
+            TermService termService,
+            CourseSysSnapshotRepository snapshotRepository,
+            MeterRegistry meterRegistry,
+            @Value("${coursesys.batch.max-courses:20}") int batchMaxCourses,
+            @Value("${coursesys.batch.max-semesters:4}") int batchMaxSemesters,
+            CourseDemandTracker demandTracker,
+            @Value("${coursesys.breaker.failure-threshold:5}") int breakerFailureThreshold,
+            @Value("${coursesys.breaker.open-seconds:30}") long breakerOpenSeconds,
+            CourseSysResponseParser responseParser,
+            @Value("${coursesys.base-url:https://coursys.sfu.ca}") String baseUrl
+    ) {
+        this.restTemplate = restTemplate;
+        this.browseUrl = baseUrl + "/browse/";
+        this.executor = executor;
+        this.fetchTimeoutMs = fetchTimeoutMs;
+        this.cache = cache;
+        this.termService = termService;
+        this.snapshotRepository = snapshotRepository;
+        this.batchMaxCourses = batchMaxCourses;
+        this.batchMaxSemesters = Math.max(1, batchMaxSemesters);
+        this.demandTracker = demandTracker;
+        this.responseParser = responseParser;
+        this.meterRegistry = meterRegistry;
+        this.breaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenSeconds * 1000);
 
-    private final RestTemplate restTemplate = new RestTemplate();
+        FunctionCounter.builder("coursys.fetch.collapsed", collapsedCalls, LongAdder::doubleValue)
+                .description("CourseSys fetches served by joining an identical in-flight request")
+                .register(meterRegistry);
+
+        Gauge.builder("coursys.upstream.inflight", upstreamInFlight, AtomicInteger::get)
+                .description("HTTP calls to CourseSys currently in progress")
+                .register(meterRegistry);
+        Gauge.builder("coursys.fetch.inflight", inFlight, Map::size)
+                .description("Cache-miss loads in progress (each may be joined by several requests)")
+                .register(meterRegistry);
+
+        Gauge.builder("coursys.breaker.state", breaker, b -> b.state().ordinal())
+                .description("CourseSys circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+        this.breakerRejected = Counter.builder("coursys.breaker.rejected")
+                .description("CourseSys calls refused because the circuit breaker was open")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("coursys.fetch.stale")
+                .description("Results served from expired cache data while CourseSys was unreachable")
+                .register(meterRegistry);
+    }
 
     /**
      * Fetches all course sections for a specific course in a specific semester.
@@ -38,6 +175,9 @@ public class CourseSysClient {
      * @return CourseSysBrowseResult containing course metadata and list of offerings
      *         Returns empty result (not null) if API call fails or returns no data
      * 
+     * Results are served from CourseSysCache when possible. Closed semesters
+     * are cached permanently, live semesters for a short TTL.
+     * 
      * Example:
      *   fetchCourseSections("CMPT", "276", 1257)
      *   → Returns all sections of CMPT 276 in Fall 2025
@@ -47,29 +187,800 @@ public class CourseSysClient {
             String courseNumber,
             long semesterCode
     ) {
+        CourseSysKey key = CourseSysKey.of(dept, courseNumber, semesterCode);
+        recordDemand(List.of(key));
+
+        long start = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return lookup(key, dept, courseNumber, semesterCode);
+        } finally {
+            RequestTiming.record(RequestTiming.Category.COURSYS, start, key);
+            sample.stop(Timer.builder("coursys.fetch")
+                    .description("fetchCourseSections time, including cache hits")
+                    .tag("dept", key.dept())
+                    .tag("historical", Boolean.toString(termService.isHistorical(semesterCode)))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Cache → join an in-flight load → load (single key).
+     */
+    private CourseSysBrowseResult lookup(
+            CourseSysKey key, String dept, String courseNumber, long semesterCode
+    ) {
+        CourseSysBrowseResult cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Join an identical load that is already running, if any
+        CompletableFuture<CourseSysBrowseResult> pending = new CompletableFuture<>();
+        CompletableFuture<CourseSysBrowseResult> existing = inFlight.putIfAbsent(key, pending);
+
+        if (existing != null) {
+            collapsedCalls.increment();
+            return awaitShared(existing);
+        }
+
+        try {
+            // The previous leader may have finished between our cache check and putIfAbsent
+            CourseSysBrowseResult result = cache.get(key);
+            if (result == null) {
+                result = load(key, dept, courseNumber, semesterCode);
+            }
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Returns the number of fetches that were served by an identical in-flight request.
+     */
+    public long getCollapsedCallCount() {
+        return collapsedCalls.sum();
+    }
+
+    /**
+     * Fetches the same course for several semesters.
+     *
+     * Semesters missing from the cache and store are requested from CourseSys
+     * in batch calls of up to coursesys.batch.max-semesters semesters (see
+     * fetchCourseSectionsBatch) rather than one call per semester. A failed
+     * call only costs the semesters it carried; the others still come back.
+     *
+     * @param dept Department code (e.g., "CMPT")
+     * @param courseNumber Course number (e.g., "276")
+     * @param semesterCodes Semester codes to fetch
+     * @return One result per semester code, in the same order as semesterCodes
+     */
+    public List<CourseSysBrowseResult> fetchCourseSectionsForSemesters(
+            String dept,
+            String courseNumber,
+            List<Long> semesterCodes
+    ) {
+        List<CourseSysKey> keys = new ArrayList<>(semesterCodes.size());
+        for (Long semesterCode : semesterCodes) {
+            keys.add(CourseSysKey.of(dept, courseNumber, semesterCode));
+        }
+
+        Map<CourseSysKey, CourseSysBrowseResult> results = fetchCourseSectionsBatch(keys);
+
+        List<CourseSysBrowseResult> ordered = new ArrayList<>(keys.size());
+        for (CourseSysKey key : keys) {
+            ordered.add(results.get(key));
+        }
+        return ordered;
+    }
+
+    /**
+     * Fetches many (course, semester) combinations with as few CourseSys calls as possible.
+     *
+     * 1. Cache hits and stored closed-semester snapshots are used as-is.
+     * 2. Keys another request is already loading are joined (single-flight).
+     * 3. The rest are grouped by department and semester set and sent to
+     *    CourseSys as batch calls using the array parameters
+     *    (subject[], number[], semester[]). Returned rows are split back into
+     *    one result per key using their term and course columns.
+     *
+     * Batch calls run concurrently with a timeout. Only a batch whose answer
+     * couldn't be parsed or split by key is retried with one call per key.
+     * A timeout, 429, other 4xx, 5xx or an open breaker fails the whole batch
+     * without retries: every key in it gets its fallback result (last good
+     * copy flagged stale, or empty), flagged unavailable.
+     *
+     * @param keys Courses + semesters to fetch
+     * @return A result (never null) for every requested key
+     */
+    public Map<CourseSysKey, CourseSysBrowseResult> fetchCourseSectionsBatch(
+            Collection<CourseSysKey> keys
+    ) {
+        long start = System.nanoTime();
+        try {
+            return lookupAll(keys);
+        } finally {
+            RequestTiming.record(RequestTiming.Category.COURSYS, start, keys.size() + " keys");
+        }
+    }
+
+    /**
+     * Cache → join in-flight loads → load the rest (many keys).
+     */
+    private Map<CourseSysKey, CourseSysBrowseResult> lookupAll(Collection<CourseSysKey> keys) {
+        Map<CourseSysKey, CourseSysBrowseResult> results = new HashMap<>();
+        Map<CourseSysKey, CompletableFuture<CourseSysBrowseResult>> claimed = new LinkedHashMap<>();
+        Map<CourseSysKey, CompletableFuture<CourseSysBrowseResult>> joined = new LinkedHashMap<>();
+
+        recordDemand(keys);
+
+        for (CourseSysKey key : new LinkedHashSet<>(keys)) {
+            CourseSysBrowseResult cached = cache.get(key);
+            if (cached != null) {
+                results.put(key, cached);
+                continue;
+            }
+
+            CompletableFuture<CourseSysBrowseResult> pending = new CompletableFuture<>();
+            CompletableFuture<CourseSysBrowseResult> existing = inFlight.putIfAbsent(key, pending);
+
+            if (existing != null) {
+                collapsedCalls.increment();
+                joined.put(key, existing);
+            } else {
+                claimed.put(key, pending);
+            }
+        }
+
+        try {
+            Map<CourseSysKey, CourseSysBrowseResult> loaded = loadAll(claimed.keySet());
+            claimed.forEach((key, pending) -> pending.complete(loaded.get(key)));
+            results.putAll(loaded);
+        } catch (RuntimeException e) {
+            claimed.values().forEach(pending -> pending.completeExceptionally(e));
+            throw e;
+        } finally {
+            claimed.forEach(inFlight::remove);
+        }
+
+        joined.forEach((key, shared) -> {
+            try {
+                results.put(key, awaitShared(shared));
+            } catch (RuntimeException e) {
+                log.warn("Shared CourseSys fetch failed for {}: {}", key, e.getMessage());
+                results.put(key, fallbackResult(key));
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Re-fetches live data from CourseSys, bypassing the cache (used by the
+     * refresh scheduler). Results are batched like fetchCourseSectionsBatch
+     * and stored on success; keys that fail come back flagged unavailable.
+     *
+     * Not counted as user demand.
+     *
+     * @param keys Courses + semesters to refresh
+     * @return A result (never null) for every requested key
+     */
+    public Map<CourseSysKey, CourseSysBrowseResult> refreshCourseSections(Collection<CourseSysKey> keys) {
+        List<CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>>> batches = new ArrayList<>();
+        for (BatchRequest batch : planBatches(new ArrayList<>(new LinkedHashSet<>(keys)))) {
+            batches.add(fetchBatchAsync(batch));
+        }
+
+        Map<CourseSysKey, CourseSysBrowseResult> results = new HashMap<>();
+        for (CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>> batch : batches) {
+            results.putAll(batch.join());
+        }
+        return results;
+    }
+
+    /**
+     * @return true while the circuit breaker is open and CourseSys is not being called
+     */
+    public boolean isCircuitOpen() {
+        return breaker.isRejecting();
+    }
+
+    /**
+     * Number of CourseSys browse calls fetching these keys would take if
+     * none were cached (for callers that rate-limit per upstream call).
+     *
+     * @param keys Courses + semesters
+     * @return Batch calls planned for the keys
+     */
+    public int plannedCallCount(Collection<CourseSysKey> keys) {
+        return planBatches(new ArrayList<>(new LinkedHashSet<>(keys))).size();
+    }
+
+    /**
+     * Counts a user request once per course for live (non-closed) semesters.
+     */
+    private void recordDemand(Collection<CourseSysKey> keys) {
+        Set<CourseDemandTracker.CourseRef> courses = new HashSet<>();
+        for (CourseSysKey key : keys) {
+            if (!termService.isHistorical(key.semesterCode())) {
+                courses.add(new CourseDemandTracker.CourseRef(key.dept(), key.courseNumber()));
+            }
+        }
+        courses.forEach(course -> demandTracker.record(course.dept(), course.courseNumber()));
+    }
+
+    /**
+     * Loads a cache miss: stored snapshot first (closed semesters), then CourseSys.
+     */
+    private CourseSysBrowseResult load(
+            CourseSysKey key, String dept, String courseNumber, long semesterCode
+    ) {
+        // Closed semesters: try the persistent store before going upstream
+        if (termService.isHistorical(semesterCode)) {
+            Optional<CourseSysBrowseResult> stored = loadSnapshot(key);
+            if (stored.isPresent()) {
+                cache.put(key, stored.get());
+                return stored.get();
+            }
+        }
+
+        try {
+            return fetchFromCourseSys(key)
+                    .orElseGet(() -> fallbackResult(key));
+        } catch (RuntimeException e) {
+            log.warn("CourseSys fetch failed for {}: {}", key, e.getMessage());
+            return fallbackResult(key);
+        }
+    }
+
+    /**
+     * Batch counterpart of load(). Never throws: failures become empty results.
+     */
+    private Map<CourseSysKey, CourseSysBrowseResult> loadAll(Collection<CourseSysKey> keys) {
+        Map<CourseSysKey, CourseSysBrowseResult> loaded = new HashMap<>();
+        List<CourseSysKey> upstream = new ArrayList<>();
+
+        for (CourseSysKey key : keys) {
+            Optional<CourseSysBrowseResult> stored = termService.isHistorical(key.semesterCode())
+                    ? loadSnapshot(key)
+                    : Optional.empty();
+
+            if (stored.isPresent()) {
+                cache.put(key, stored.get());
+                loaded.put(key, stored.get());
+            } else {
+                upstream.add(key);
+            }
+        }
+
+        List<CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>>> batches = new ArrayList<>();
+        for (BatchRequest batch : planBatches(upstream)) {
+            batches.add(fetchBatchAsync(batch));
+        }
+        for (CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>> batch : batches) {
+            loaded.putAll(batch.join());
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Waits for another caller's load and rethrows its failure unwrapped.
+     */
+    private CourseSysBrowseResult awaitShared(CompletableFuture<CourseSysBrowseResult> shared) {
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores a successful upstream result: snapshot table (closed semesters) + cache.
+     */
+    private void store(CourseSysKey key, CourseSysBrowseResult result) {
+        if (termService.isHistorical(key.semesterCode())) {
+            saveSnapshot(key, result);
+        }
+        cache.put(key, result);
+    }
+
+    // -----------------------------
+    // Circuit breaker / stale fallback
+    // -----------------------------
+
+    /**
+     * Performs the HTTP call through the circuit breaker, parsing the
+     * body as it streams in.
+     *
+     * Connection errors, timeouts, 5xx and 429 answers and unreadable bodies
+     * count as failures. Any other 4xx answer means CourseSys is up, so it
+     * counts as a success.
+     *
+     * @return Parsed rows, or null if CourseSys did not answer 200 with a body
+     * @throws CircuitOpenException if the breaker is open (no call is made)
+     */
+    private List<CourseSysResponseParser.Row> callCourseSys(URI uri) {
+        if (!breaker.tryAcquire()) {
+            breakerRejected.increment();
+            throw new CircuitOpenException();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        upstreamInFlight.incrementAndGet();
+        String outcome = "error";
+
+        try {
+            List<CourseSysResponseParser.Row> rows = restTemplate.execute(
+                    uri,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                    response -> response.getStatusCode() == HttpStatus.OK
+                            ? parseBody(response.getBody())
+                            : null);
+            breaker.onSuccess();
+            outcome = "success";
+            return rows;
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            // Rate limited: CourseSys wants less traffic, so trip towards open
+            breaker.onFailure();
+            outcome = "throttled";
+            throw e;
+        } catch (HttpClientErrorException e) {
+            breaker.onSuccess();
+            outcome = "client_error";
+            throw e;
+        } catch (UnreadableResponseException e) {
+            breaker.onFailure();
+            outcome = "unreadable";
+            throw e;
+        } catch (RestClientException e) {
+            breaker.onFailure();
+            throw e;
+        } finally {
+            upstreamInFlight.decrementAndGet();
+            sample.stop(Timer.builder("coursys.upstream")
+                    .description("HTTP calls to coursys.sfu.ca, including body parsing")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Parses a browse response, telling a malformed body apart from the
+     * connection failing mid-stream.
+     *
+     * @throws UnreadableResponseException if the body is not the expected JSON
+     */
+    private List<CourseSysResponseParser.Row> parseBody(InputStream body) throws IOException {
+        try {
+            return responseParser.parse(body);
+        } catch (JsonProcessingException e) {
+            throw new UnreadableResponseException(e);
+        }
+    }
+
+    /**
+     * Result to serve when CourseSys can't answer for a key: the last known
+     * good cached result (copied and flagged stale) if there is one,
+     * otherwise an empty placeholder. Both are flagged unavailable so they
+     * are never stored or materialized.
+     */
+    private CourseSysBrowseResult fallbackResult(CourseSysKey key) {
+        CourseSysBrowseResult lastGood = cache.getStale(key);
+        if (lastGood == null) {
+            return emptyResult(key.dept(), key.courseNumber(), key.semesterCode());
+        }
+
+        staleServed.increment();
+
+        // Cached results are shared, so flag a copy
+        CourseSysBrowseResult stale = new CourseSysBrowseResult();
+        stale.setYear(lastGood.getYear());
+        stale.setSemester(lastGood.getSemester());
+        stale.setSemesterCode(lastGood.getSemesterCode());
+        stale.setDept(lastGood.getDept());
+        stale.setCourseNumber(lastGood.getCourseNumber());
+        stale.setTitle(lastGood.getTitle());
+        stale.setOfferings(lastGood.getOfferings());
+        stale.setFetchedAt(lastGood.getFetchedAt());
+        stale.setUnavailable(true);
+        stale.setStale(true);
+        return stale;
+    }
+
+    /**
+     * Thrown instead of calling CourseSys while the circuit breaker is open.
+     */
+    static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("CourseSys circuit breaker is open");
+        }
+    }
+
+    /**
+     * A batch answer had a row whose term / course number doesn't match any
+     * requested key. The batch is retried one key per call, where every row
+     * belongs to the single key.
+     */
+    static class UnattributedRowException extends RuntimeException {
+        UnattributedRowException(CourseSysResponseParser.Row row) {
+            super("CourseSys row can't be attributed to a requested key: " + row);
+        }
+    }
+
+    /**
+     * CourseSys answered 200 but the body was not the expected JSON.
+     */
+    static class UnreadableResponseException extends RuntimeException {
+        UnreadableResponseException(JsonProcessingException cause) {
+            super("Unreadable CourseSys response: " + cause.getOriginalMessage(), cause);
+        }
+    }
+
+    // -----------------------------
+    // Batching
+    // -----------------------------
+
+    /**
+     * Groups keys into CourseSys calls.
+     *
+     * Courses of the same department that ask for the same set of semesters
+     * share a call, so the subject[] × number[] × semester[] cross product
+     * CourseSys answers is exactly the set of requested keys.
+     *
+     * Calls are capped at batchMaxCourses courses and batchMaxSemesters
+     * semesters. The semester cap trades a few more calls for a smaller blast
+     * radius: a call that times out or fails takes down at most that many
+     * semesters of a course, not its whole offerings list.
+     */
+    private List<BatchRequest> planBatches(List<CourseSysKey> keys) {
+        Map<String, Map<String, Set<Long>>> semestersByCourse = new LinkedHashMap<>();
+        for (CourseSysKey key : keys) {
+            semestersByCourse
+                    .computeIfAbsent(key.dept(), d -> new LinkedHashMap<>())
+                    .computeIfAbsent(key.courseNumber(), n -> new TreeSet<>())
+                    .add(key.semesterCode());
+        }
+
+        List<BatchRequest> batches = new ArrayList<>();
+
+        semestersByCourse.forEach((dept, courses) -> {
+            Map<Set<Long>, List<String>> numbersBySemesters = new LinkedHashMap<>();
+            courses.forEach((number, semesters) ->
+                    numbersBySemesters.computeIfAbsent(semesters, s -> new ArrayList<>()).add(number));
+
+            numbersBySemesters.forEach((semesters, numbers) -> {
+                List<Long> semesterList = new ArrayList<>(semesters);
+                for (int s = 0; s < semesterList.size(); s += batchMaxSemesters) {
+                    Set<Long> semesterChunk = new TreeSet<>(
+                            semesterList.subList(s, Math.min(s + batchMaxSemesters, semesterList.size())));
+                    for (int i = 0; i < numbers.size(); i += batchMaxCourses) {
+                        List<String> chunk = numbers.subList(i, Math.min(i + batchMaxCourses, numbers.size()));
+                        batches.add(new BatchRequest(dept, List.copyOf(chunk), semesterChunk));
+                    }
+                }
+            });
+        });
+
+        return batches;
+    }
+
+    /**
+     * Runs one batch call on the CourseSys executor with a timeout.
+     * A call whose body couldn't be read or split by key falls back to
+     * fetching its keys one by one (nothing from the batch is stored); any
+     * other failure serves fallback results for the whole batch.
+     */
+    private CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>> fetchBatchAsync(BatchRequest batch) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> {
+                        Map<CourseSysKey, CourseSysBrowseResult> fetched = fetchBatchFromCourseSys(batch)
+                                .orElseThrow(() -> new IllegalStateException("CourseSys returned no data"));
+                        fetched.forEach(this::store);
+                        return fetched;
+                    }, executor)
+                    .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionallyCompose(ex -> {
+                        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                        // Only a body that couldn't be read or split by key is worth retrying key by key.
+                        // Timeouts, an open breaker, 429 / 4xx / 5xx would only fail (or add load) again.
+                        if (batch.keys().size() > 1
+                                && (cause instanceof UnreadableResponseException
+                                        || cause instanceof UnattributedRowException)) {
+                            log.warn("CourseSys batch failed for {} {} ({}), fetching individually: {}",
+                                    batch.dept(), batch.courseNumbers(), batch.semesterCodes(), cause.getMessage());
+                            return fetchIndividuallyAsync(batch.keys());
+                        }
+                        log.warn("CourseSys batch failed for {} {} ({}): {}",
+                                batch.dept(), batch.courseNumbers(), batch.semesterCodes(), cause.getMessage());
+                        return CompletableFuture.completedFuture(fallbackResults(batch.keys()));
+                    });
+        } catch (RejectedExecutionException ex) {
+            log.warn("CourseSys executor saturated, skipping {} {} ({})",
+                    batch.dept(), batch.courseNumbers(), batch.semesterCodes());
+            return CompletableFuture.completedFuture(fallbackResults(batch.keys()));
+        }
+    }
+
+    /**
+     * Fetches each key in its own concurrent call (fallback when a batch call fails).
+     */
+    private CompletableFuture<Map<CourseSysKey, CourseSysBrowseResult>> fetchIndividuallyAsync(
+            List<CourseSysKey> keys
+    ) {
+        Map<CourseSysKey, CompletableFuture<CourseSysBrowseResult>> futures = new LinkedHashMap<>();
+        for (CourseSysKey key : keys) {
+            futures.put(key, fetchAsync(key));
+        }
+
+        return CompletableFuture
+                .allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<CourseSysKey, CourseSysBrowseResult> results = new HashMap<>();
+                    futures.forEach((key, future) -> results.put(key, future.join()));
+                    return results;
+                });
+    }
+
+    /**
+     * Schedules a single upstream fetch on the CourseSys executor.
+     * Never completes exceptionally: failures become fallback (stale or empty) results.
+     */
+    private CompletableFuture<CourseSysBrowseResult> fetchAsync(CourseSysKey key) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> fetchFromCourseSys(key).orElseGet(() -> fallbackResult(key)), executor)
+                    .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        log.warn("CourseSys fetch failed for {}: {}", key, ex.getMessage());
+                        return fallbackResult(key);
+                    });
+        } catch (RejectedExecutionException ex) {
+            log.warn("CourseSys executor saturated, skipping {}", key);
+            return CompletableFuture.completedFuture(fallbackResult(key));
+        }
+    }
+
+    /**
+     * Calls CourseSys for a single key and stores a successful result.
+     *
+     * @return Parsed result, or empty if CourseSys did not answer 200 with a body
+     */
+    private Optional<CourseSysBrowseResult> fetchFromCourseSys(CourseSysKey key) {
+        BatchRequest single = new BatchRequest(
+                key.dept(), List.of(key.courseNumber()), Set.of(key.semesterCode()));
+
+        return fetchBatchFromCourseSys(single)
+                .map(results -> {
+                    CourseSysBrowseResult result = results.get(key);
+                    store(key, result);
+                    return result;
+                });
+    }
 
+    /**
+     * Calls the CourseSys browse API directly (no caching) for every
+     * course × semester combination in the batch.
+     *
+     * @return One parsed result per key, or empty if CourseSys did not answer 200 with a body
+     * @throws UnattributedRowException if a row can't be matched to a requested key
+     */
+    private Optional<Map<CourseSysKey, CourseSysBrowseResult>> fetchBatchFromCourseSys(BatchRequest batch) {
         UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(COURSESYS_BROWSE)
-                .queryParam("subject[]", dept.toUpperCase())
-                .queryParam("number[]", courseNumber)
-                .queryParam("semester[]", semesterCode)
+                .fromHttpUrl(browseUrl)
+                .queryParam("subject[]", batch.dept())
+                .queryParam("number[]", batch.courseNumbers().toArray())
+                .queryParam("semester[]", batch.semesterCodes().toArray())
                 .queryParam("tabledata", "yes");
 
         // ✅ FIX: build as NOT encoded, then encode once (brackets become %5B%5D)
         // and pass URI to RestTemplate to avoid double-encoding.
         URI uri = builder.build(false).encode().toUri();
 
-        ResponseEntity<Map> response =
-                restTemplate.getForEntity(uri, Map.class);
+        List<CourseSysResponseParser.Row> rows = callCourseSys(uri);
+
+        if (rows == null) {
+            return Optional.empty();
+        }
+
+        // Split rows back into one group per requested key
+        Map<CourseSysKey, List<CourseSysResponseParser.Row>> rowsByKey = new HashMap<>();
+        for (CourseSysKey key : batch.keys()) {
+            rowsByKey.put(key, new ArrayList<>());
+        }
+
+        // A row we can't place could belong to any key: results built without
+        // it would be stored as final, so the whole batch is rejected instead
+        for (CourseSysResponseParser.Row row : rows) {
+            List<CourseSysResponseParser.Row> group = rowsByKey.get(rowKey(row, batch));
+            if (group == null) {
+                throw new UnattributedRowException(row);
+            }
+            group.add(row);
+        }
+
+        Map<CourseSysKey, CourseSysBrowseResult> results = new HashMap<>();
+        rowsByKey.forEach((key, keyRows) -> results.put(key,
+                parseResult(keyRows, key.dept(), key.courseNumber(), key.semesterCode())));
+
+        return Optional.of(results);
+    }
+
+    /**
+     * Works out which requested key a returned row belongs to.
+     *
+     * Only the dimensions with more than one requested value are parsed, so a
+     * single-course, single-semester call accepts every row (as before batching).
+     *
+     * @return Key for the row, or null if its term/course can't be determined
+     *         (the caller rejects the batch)
+     */
+    private CourseSysKey rowKey(CourseSysResponseParser.Row row, BatchRequest batch) {
+        try {
+            long semesterCode = batch.semesterCodes().size() == 1
+                    ? batch.semesterCodes().iterator().next()
+                    : extractSemesterCode(row);
+
+            String number = batch.courseNumbers().size() == 1
+                    ? batch.courseNumbers().get(0)
+                    : row.courseNumber();
 
-        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-            return emptyResult(dept, courseNumber, semesterCode);
+            return CourseSysKey.of(batch.dept(), number, semesterCode);
+        } catch (RuntimeException e) {
+            log.debug("Unrecognised CourseSys row {}: {}", row, e.getMessage());
+            return null;
         }
+    }
 
-        List<List<String>> rows =
-                (List<List<String>>) response.getBody().get("data");
+    private Map<CourseSysKey, CourseSysBrowseResult> fallbackResults(List<CourseSysKey> keys) {
+        Map<CourseSysKey, CourseSysBrowseResult> fallbacks = new HashMap<>();
+        for (CourseSysKey key : keys) {
+            fallbacks.put(key, fallbackResult(key));
+        }
+        return fallbacks;
+    }
 
-        return parseResult(rows, dept, courseNumber, semesterCode);
+    /**
+     * One CourseSys browse call: a department, some course numbers, some semesters.
+     */
+    private record BatchRequest(String dept, List<String> courseNumbers, Set<Long> semesterCodes) {
+
+        List<CourseSysKey> keys() {
+            List<CourseSysKey> keys = new ArrayList<>();
+            for (String number : courseNumbers) {
+                for (Long semesterCode : semesterCodes) {
+                    keys.add(CourseSysKey.of(dept, number, semesterCode));
+                }
+            }
+            return keys;
+        }
+    }
+
+    // -----------------------------
+    // Snapshot store (closed semesters)
+    // -----------------------------
+
+    /**
+     * Loads a stored result for a closed semester.
+     * 
+     * Store failures are logged and treated as a miss so browsing keeps
+     * working (from CourseSys) while the database is unavailable.
+     */
+    private Optional<CourseSysBrowseResult> loadSnapshot(CourseSysKey key) {
+        try {
+            return snapshotRepository
+                    .findByDeptCodeAndCourseNumberAndSemesterCode(
+                            key.dept(), key.courseNumber(), key.semesterCode())
+                    .map(this::fromSnapshot);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read CourseSys snapshot {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a freshly fetched closed-semester result to the store.
+     * A concurrent insert of the same key loses the race harmlessly.
+     */
+    private void saveSnapshot(CourseSysKey key, CourseSysBrowseResult result) {
+        try {
+            snapshotRepository.save(toSnapshot(key, result));
+        } catch (DataAccessException e) {
+            log.warn("Failed to store CourseSys snapshot {}: {}", key, e.getMessage());
+        }
+    }
+
+    private CourseSysSnapshot toSnapshot(CourseSysKey key, CourseSysBrowseResult result) {
+        List<Map<String, Object>> offerings = new ArrayList<>();
+
+        for (CourseSysOffering o : result.getOfferings()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("section", o.getSection());
+            row.put("infoUrl", o.getInfoUrl());
+            row.put("instructor", o.getInstructor());
+            row.put("campus", o.getCampus());
+            row.put("enrolled", o.getEnrolled());
+            row.put("waitlist", o.getWaitlist());
+            row.put("capacity", o.getCapacity());
+            offerings.add(row);
+        }
+
+        CourseSysSnapshot snapshot =
+                new CourseSysSnapshot(key.dept(), key.courseNumber(), key.semesterCode());
+        snapshot.setTitle(result.getTitle());
+        snapshot.setSections(Map.of("offerings", offerings));
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CourseSysBrowseResult fromSnapshot(CourseSysSnapshot snapshot) {
+        long semesterCode = snapshot.getSemesterCode();
+
+        CourseSysBrowseResult result = new CourseSysBrowseResult();
+        result.setDept(snapshot.getDeptCode());
+        result.setCourseNumber(snapshot.getCourseNumber());
+        result.setSemesterCode(semesterCode);
+        result.setYear(1900 + semesterCode / 10);
+        result.setSemester(parseSemester(semesterCode));
+        result.setTitle(snapshot.getTitle());
+        if (snapshot.getFetchedAt() != null) {
+            result.setFetchedAt(snapshot.getFetchedAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        List<CourseSysOffering> offerings = new ArrayList<>();
+        Object rows = snapshot.getSections() != null
+                ? snapshot.getSections().get("offerings")
+                : null;
+
+        if (rows instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, Object> row = (Map<String, Object>) item;
+
+                CourseSysOffering offering = new CourseSysOffering();
+                offering.setSection(stringValue(row.get("section")));
+                offering.setInfoUrl(stringValue(row.get("infoUrl")));
+                offering.setInstructor(stringValue(row.get("instructor")));
+                offering.setCampus(stringValue(row.get("campus")));
+                readEnrollment(row, offering);
+                offerings.add(offering);
+            }
+        }
+
+        result.setOfferings(offerings);
+        return result;
+    }
+
+    /**
+     * Numbers since enrollment is parsed at ingest; older snapshots hold
+     * the CourseSys display strings ("115 (+31)", "100").
+     */
+    private void readEnrollment(Map<String, Object> row, CourseSysOffering offering) {
+        Object enrolled = row.get("enrolled");
+        Object capacity = row.get("capacity");
+
+        if (enrolled instanceof Number || capacity instanceof Number) {
+            offering.setEnrollment(intValue(enrolled), intValue(row.get("waitlist")), intValue(capacity));
+        } else {
+            offering.setEnrollmentText(stringValue(enrolled), stringValue(capacity));
+        }
+    }
+
+    private int intValue(Object value) {
+        return value instanceof Number n ? n.intValue() : 0;
+    }
+
+    private String stringValue(Object value) {
+        return value != null ? value.toString() : null;
     }
 
     // -----------------------------
@@ -77,16 +988,16 @@ public class CourseSysClient {
     // -----------------------------
 
     /**
-     * Parses CourseSys API response data into structured result object.
+     * Builds the result for one (course, semester) from its parsed rows.
      * 
-     * @param rows List of table rows from API response
+     * @param rows Rows of the CourseSys response belonging to this key
      * @param dept Department code
      * @param courseNumber Course number
      * @param semesterCode Semester code
      * @return Populated CourseSysBrowseResult with all offerings
      */
     private CourseSysBrowseResult parseResult(
-            List<List<String>> rows,
+            List<CourseSysResponseParser.Row> rows,
             String dept,
             String courseNumber,
             long semesterCode
@@ -99,28 +1010,13 @@ public class CourseSysClient {
 
         result.setYear(1900 + semesterCode / 10);
         result.setSemester(parseSemester(semesterCode));
+        result.setFetchedAt(Instant.now());
 
-        List<CourseSysOffering> offerings = new ArrayList<>();
-
-        for (List<String> row : rows) {
-            // row format:
-            // [0]=term, [1]=html link, [2]=title,
-            // [3]=enrollment, [4]=instructor, [5]=campus
-
-            String title = row.get(2);
-            result.setTitle(title);
+        List<CourseSysOffering> offerings = new ArrayList<>(rows.size());
 
-            String enrollmentRaw = row.get(3); // "96/100"
-            String[] parts = enrollmentRaw.split("/");
-
-            CourseSysOffering offering = new CourseSysOffering();
-            offering.setSection(extractSection(row.get(1)));
-            offering.setInfoUrl(extractInfoUrl(row.get(1)));
-            offering.setInstructor(row.get(4));
-            offering.setCampus(row.get(5));
-            offering.setEnrolled(parts[0].trim());   // "115 (+31)"
-            offering.setCapacity(parts[1].trim());   // "100"
-            offerings.add(offering);
+        for (CourseSysResponseParser.Row row : rows) {
+            result.setTitle(row.title());
+            offerings.add(row.offering());
         }
 
         result.setOfferings(offerings);
@@ -133,7 +1029,8 @@ public class CourseSysClient {
      * @param dept Department code
      * @param courseNumber Course number
      * @param semesterCode Semester code
-     * @return Empty CourseSysBrowseResult with metadata but no offerings
+     * @return Empty CourseSysBrowseResult with metadata but no offerings,
+     *         flagged unavailable so it is never persisted as real data
      */
     private CourseSysBrowseResult emptyResult(
             String dept, String courseNumber, long semesterCode
@@ -143,6 +1040,7 @@ public class CourseSysClient {
         r.setCourseNumber(courseNumber);
         r.setSemesterCode(semesterCode);
         r.setOfferings(List.of());
+        r.setUnavailable(true);
         return r;
     }
 
@@ -168,33 +1066,21 @@ public class CourseSysClient {
     }
 
     /**
-     * Extracts section identifier from HTML link.
+     * Extracts semester code from a row.
      * 
-     * @param html HTML anchor tag containing section info
-     *             Example: "<a ...>CMPT 276 D100</a>"
-     * @return Section identifier (e.g., "D100")
-     */
-    private String extractSection(String html) {
-        // "<a ...>CMPT 276 D100</a>" → "D100"
-        int start = html.indexOf('>') + 1;
-        int end = html.indexOf("</");
-        String innerText = html.substring(start, end).trim(); // "CMPT 276 D100"
-
-        String[] tokens = innerText.split("\\s+");
-        return tokens[tokens.length - 1];
-    }
-
-    /**
-     * Extracts course info URL from HTML link.
+     * Uses the term column (e.g., "Fall 2025"), falling back to the
+     * semester slug in the info URL ("/browse/info/2025fa-cmpt-276-d1").
      * 
-     * @param html HTML anchor tag with href attribute
-     *             Example: "<a href='/browse/info/2025fa-cmpt-276-d1'>..."
-     * @return URL path (e.g., "/browse/info/2025fa-cmpt-276-d1")
-     */
-    private String extractInfoUrl(String html) {
-        // href="/browse/info/..."
-        long start = html.indexOf("href=\"") + 6;
-        long end = html.indexOf("\"", (int)start);
-        return html.substring((int)start, (int)end);
+     * @param row Parsed CourseSys table row
+     * @return Semester code (e.g., 1257)
+     */
+    private long extractSemesterCode(CourseSysResponseParser.Row row) {
+        try {
+            return SemesterUtil.parseSemesterLabel(row.term());
+        } catch (IllegalArgumentException e) {
+            String infoUrl = row.offering().getInfoUrl();   // "/browse/info/2025fa-cmpt-276-d1"
+            String slug = infoUrl.substring(infoUrl.lastIndexOf('/') + 1);
+            return SemesterUtil.parseSemesterLabel(slug.substring(0, slug.indexOf('-')));
+        }
     }
 }
@@ -1,13 +1,33 @@
 package com.example.courseplanner.service;
 
 import com.example.courseplanner.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class CourseSysClientTest {
 
     public static void main(String[] args) {
 
-        CourseSysClient client = new CourseSysClient();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // No database here: pretend the test semester is the current one
+        TermService termService = new TermService(null, 0) {
+            @Override
+            public Long getCurrentSemesterCode() {
+                return 1257L;
+            }
+        };
+        CourseSysCache cache = new CourseSysCache(termService, 100, 100, 60, 86400);
+        // Snapshot store is only consulted for closed semesters (not used here)
+        CourseSysClient client = new CourseSysClient(
+                new RestTemplate(), executor, 4000, cache, termService, null, new SimpleMeterRegistry(), 20, 4,
+                new CourseDemandTracker(), 5, 30,
+                new CourseSysResponseParser(new ObjectMapper()), "https://coursys.sfu.ca");
 
         // === Test parameters ===
         String dept = "CMPT";
@@ -39,13 +59,15 @@ public class CourseSysClientTest {
             System.out.println("Section    : " + o.getSection());
             System.out.println("Instructor : " + o.getInstructor());
             System.out.println("Campus     : " + o.getCampus());
-            System.out.println("Enrolled   : " + o.getEnrolled());
-            System.out.println("Capacity   : " + o.getCapacity());
+            System.out.println("Enrolled   : " + o.getEnrolledText());
+            System.out.println("Capacity   : " + o.getCapacityText());
             Long load = o.getLoadPercent();
             System.out.println("Load %     : " + load + "%");
             System.out.println("Info URL   : " + o.getInfoUrl());
         }
 
+        executor.shutdown();
+
         System.out.println("\n======================================");
         System.out.println("CourseSysClient test completed.");
         System.out.println("======================================");
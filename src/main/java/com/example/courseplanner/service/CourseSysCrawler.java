@@ -0,0 +1,444 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.dto.ApiCourseDTO;
+import com.example.courseplanner.dto.ApiDepartmentDTO;
+import com.example.courseplanner.entity.CourseEnrollmentHistory;
+import com.example.courseplanner.entity.CrawlerCheckpoint;
+import com.example.courseplanner.model.CatalogSnapshot;
+import com.example.courseplanner.model.CourseSysBrowseResult;
+import com.example.courseplanner.model.CourseSysKey;
+import com.example.courseplanner.repository.CourseEnrollmentHistoryRepository;
+import com.example.courseplanner.repository.CrawlerCheckpointRepository;
+import com.example.courseplanner.utils.SemesterUtil;
+import com.example.courseplanner.utils.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * =========================================================
+ * CourseSys Crawler
+ *
+ * Pre-warms every course × the last crawler.window-semesters
+ * closed semesters, so user requests for history almost never
+ * wait on CourseSys. Results land in coursys_snapshots (via
+ * CourseSysClient) and course_enrollment_history / course_stats
+ * (via EnrollmentHistoryService).
+ *
+ * - Pass: walks the catalog in course_id order; pairs that are
+ *   already materialized cost one DB lookup and no upstream call
+ * - Checkpoint: progress is saved in crawler_checkpoints after
+ *   every step, so restarts resume where they left off. A new
+ *   closed semester (term rollover) starts a fresh pass
+ * - Rate limit: global token bucket, one token per CourseSys
+ *   browse call the step issues
+ * - Adaptive concurrency (AIMD): courses per step grow by one
+ *   after a clean step and halve when any fetch fails
+ *   (429 / 5xx / timeout); the crawler then pauses with
+ *   exponential backoff and retries the same step
+ * - Skipping: after crawler.max-step-attempts failed tries at
+ *   the same position, the courses that keep failing are
+ *   logged and skipped so one bad course can't stall the pass;
+ *   the next pass tries them again
+ *
+ * - Stats: every course walked has its course_stats aggregate
+ *   recomputed for the current window (CourseStatsService), so
+ *   semesters that left the window are evicted each pass
+ *
+ * Live semesters are not crawled here; their data changes
+ * constantly and is refreshed on demand.
+ *
+ * Metrics: coursys.crawler.fetches{outcome}, .courses,
+ * .throttled (ms), .concurrency, .coverage, .pass.progress
+ * =========================================================
+ */
+@Service
+public class CourseSysCrawler {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSysCrawler.class);
+
+    private static final String CRAWLER_NAME = "coursys";
+
+    private final CatalogService catalogService;
+    private final TermService termService;
+    private final CourseSysClient courseSysClient;
+    private final EnrollmentHistoryService enrollmentHistoryService;
+    private final CourseStatsService courseStatsService;
+    private final CourseEnrollmentHistoryRepository historyRepository;
+    private final CrawlerCheckpointRepository checkpointRepository;
+
+    private final boolean enabled;
+    private final int windowSemesters;
+    private final int maxConcurrency;
+    private final long tickBudgetMs;
+    private final long passIntervalMs;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final TokenBucket rateLimit;
+
+    private final Counter fetchedOk;
+    private final Counter fetchedFailed;
+    private final Counter coursesCrawled;
+    private final Counter throttledMs;
+    private final Counter coursesSkipped;
+
+    // AIMD state (only touched by the scheduler thread running tick())
+    private volatile int concurrency = 1;
+    private long backoffMs = 0;
+    private long backoffUntil = 0;
+
+    // Failed tries at the current checkpoint position
+    private final int maxStepAttempts;
+    private long failedAtCourseId = -1;
+    private int failedAttempts = 0;
+
+    // Metrics surface
+    private final AtomicLong coveredPairs = new AtomicLong();
+    private final AtomicLong totalPairs = new AtomicLong();
+    private final AtomicLong passPosition = new AtomicLong();
+    private final AtomicLong passSize = new AtomicLong();
+
+    public CourseSysCrawler(
+        CatalogService catalogService,
+        TermService termService,
+        CourseSysClient courseSysClient,
+        EnrollmentHistoryService enrollmentHistoryService,
+        CourseStatsService courseStatsService,
+        CourseEnrollmentHistoryRepository historyRepository,
+        CrawlerCheckpointRepository checkpointRepository,
+        MeterRegistry meterRegistry,
+        @Value("${crawler.enabled:true}") boolean enabled,
+        @Value("${crawler.window-semesters:15}") int windowSemesters,
+        @Value("${crawler.rate-per-second:2}") double ratePerSecond,
+        @Value("${crawler.burst:4}") int burst,
+        @Value("${crawler.max-concurrency:8}") int maxConcurrency,
+        @Value("${crawler.tick-budget-ms:50000}") long tickBudgetMs,
+        @Value("${crawler.pass-interval-hours:24}") long passIntervalHours,
+        @Value("${crawler.backoff-base-ms:30000}") long backoffBaseMs,
+        @Value("${crawler.backoff-max-ms:600000}") long backoffMaxMs,
+        @Value("${crawler.max-step-attempts:3}") int maxStepAttempts
+    ) {
+        this.catalogService = catalogService;
+        this.termService = termService;
+        this.courseSysClient = courseSysClient;
+        this.enrollmentHistoryService = enrollmentHistoryService;
+        this.courseStatsService = courseStatsService;
+        this.historyRepository = historyRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.enabled = enabled;
+        this.windowSemesters = windowSemesters;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.tickBudgetMs = tickBudgetMs;
+        this.passIntervalMs = Duration.ofHours(passIntervalHours).toMillis();
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.maxStepAttempts = Math.max(1, maxStepAttempts);
+        this.rateLimit = new TokenBucket(ratePerSecond, burst);
+
+        this.fetchedOk = Counter.builder("coursys.crawler.fetches")
+                .tag("outcome", "ok")
+                .description("Course x semester pairs fetched by the crawler")
+                .register(meterRegistry);
+        this.fetchedFailed = Counter.builder("coursys.crawler.fetches")
+                .tag("outcome", "unavailable")
+                .description("Course x semester pairs CourseSys failed to deliver")
+                .register(meterRegistry);
+        this.coursesCrawled = Counter.builder("coursys.crawler.courses")
+                .description("Courses visited by the crawler")
+                .register(meterRegistry);
+        this.throttledMs = Counter.builder("coursys.crawler.throttled")
+                .baseUnit("milliseconds")
+                .description("Time the crawler waited on its rate limit")
+                .register(meterRegistry);
+        this.coursesSkipped = Counter.builder("coursys.crawler.skipped")
+                .description("Courses skipped for the rest of a pass after repeated failures")
+                .register(meterRegistry);
+
+        Gauge.builder("coursys.crawler.concurrency", () -> concurrency)
+                .description("Courses fetched per crawler step (AIMD)")
+                .register(meterRegistry);
+        Gauge.builder("coursys.crawler.coverage", this::coverage)
+                .description("Share of course x closed-semester pairs materialized")
+                .register(meterRegistry);
+        Gauge.builder("coursys.crawler.pass.progress", this::passProgress)
+                .description("Share of the catalog walked in the current pass")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the crawler for up to tick-budget-ms, then yields the scheduler thread.
+     */
+    @Scheduled(
+        fixedDelayString = "${crawler.tick-ms:60000}",
+        initialDelayString = "${crawler.initial-delay-ms:120000}"
+    )
+    public void tick() {
+        if (!enabled || System.currentTimeMillis() < backoffUntil) {
+            return;
+        }
+
+        Long current = termService.getCurrentSemesterCode();
+        if (current == null) {
+            return;
+        }
+
+        // Window: the last N closed semesters
+        long newest = SemesterUtil.previousSemesterCode(current);
+        long oldest = newest;
+        for (int i = 1; i < windowSemesters; i++) {
+            oldest = SemesterUtil.previousSemesterCode(oldest);
+        }
+
+        CatalogSnapshot catalog = catalogService.snapshot();
+        Map<Long, String> deptCodes = new HashMap<>();
+        for (ApiDepartmentDTO department : catalog.departments()) {
+            deptCodes.put(department.getDeptId(), department.getDeptCode());
+        }
+
+        List<ApiCourseDTO> courses = new ArrayList<>();
+        catalog.coursesByDeptId().values().forEach(courses::addAll);
+        courses.sort(Comparator.comparing(ApiCourseDTO::getCourseId));
+
+        passSize.set(courses.size());
+        updateCoverage(oldest, newest, courses.size());
+
+        CrawlerCheckpoint checkpoint = checkpointRepository.findById(CRAWLER_NAME)
+                .orElseGet(() -> new CrawlerCheckpoint(CRAWLER_NAME));
+
+        if (!startOrResumePass(checkpoint, newest)) {
+            return;
+        }
+
+        int index = 0;
+        while (index < courses.size() && courses.get(index).getCourseId() <= checkpoint.getLastCourseId()) {
+            index++;
+        }
+
+        long deadline = System.currentTimeMillis() + tickBudgetMs;
+
+        while (index < courses.size() && System.currentTimeMillis() < deadline) {
+            passPosition.set(index);
+
+            List<ApiCourseDTO> step = courses.subList(index, Math.min(index + concurrency, courses.size()));
+
+            Set<Long> failedCourseIds;
+            try {
+                failedCourseIds = crawlStep(step, deptCodes, oldest, newest);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            recomputeStats(step);
+
+            if (!failedCourseIds.isEmpty()) {
+                backOff();
+                if (!giveUpOn(checkpoint.getLastCourseId(), failedCourseIds)) {
+                    break; // retry this step after the pause; checkpoint not advanced
+                }
+                // Too many tries: the rest of the step is materialized, move past it
+            }
+
+            index += step.size();
+            checkpoint.setLastCourseId(step.get(step.size() - 1).getCourseId());
+            checkpointRepository.save(checkpoint);
+
+            if (!failedCourseIds.isEmpty()) {
+                break; // skipped, but still honour the pause
+            }
+        }
+
+        passPosition.set(index);
+
+        if (index >= courses.size()) {
+            checkpoint.setLastPassCompletedAt(LocalDateTime.now());
+            checkpoint.setPassStartedAt(null);
+            checkpoint.setLastCourseId(0L);
+            checkpointRepository.save(checkpoint);
+            updateCoverage(oldest, newest, courses.size());
+            log.info("CourseSys crawl pass complete ({} courses, coverage {})",
+                    courses.size(), String.format("%.3f", coverage()));
+        }
+    }
+
+    /**
+     * Decides whether to crawl now, starting a new pass if due.
+     *
+     * @return false if the last pass is recent and the window hasn't moved
+     */
+    private boolean startOrResumePass(CrawlerCheckpoint checkpoint, long newest) {
+        boolean sameWindow = Objects.equals(checkpoint.getNewestSemesterCode(), newest);
+
+        if (sameWindow && checkpoint.getPassStartedAt() != null) {
+            return true; // resume
+        }
+
+        if (sameWindow && checkpoint.getLastPassCompletedAt() != null) {
+            long sinceLastPass = Duration.between(checkpoint.getLastPassCompletedAt(), LocalDateTime.now()).toMillis();
+            if (sinceLastPass < passIntervalMs) {
+                return false;
+            }
+        }
+
+        checkpoint.setNewestSemesterCode(newest);
+        checkpoint.setLastCourseId(0L);
+        checkpoint.setPassStartedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        log.info("CourseSys crawl pass started (newest closed semester {})", newest);
+        return true;
+    }
+
+    /**
+     * Counts a failed try at the current position.
+     *
+     * @param position Checkpoint (last course id done) the failed step started after
+     * @param failedCourseIds Courses CourseSys didn't deliver in that step
+     * @return true if the step has failed max-step-attempts times and should be skipped
+     */
+    private boolean giveUpOn(long position, Set<Long> failedCourseIds) {
+        if (failedAtCourseId != position) {
+            failedAtCourseId = position;
+            failedAttempts = 0;
+        }
+        failedAttempts++;
+
+        if (failedAttempts < maxStepAttempts) {
+            return false;
+        }
+
+        log.warn("CourseSys crawl skipping courses {} after {} failed attempts; retrying them next pass",
+                failedCourseIds, failedAttempts);
+        coursesSkipped.increment(failedCourseIds.size());
+        failedAtCourseId = -1;
+        failedAttempts = 0;
+        return true;
+    }
+
+    /**
+     * Fetches and materializes every missing closed semester of a few courses.
+     *
+     * @return Courses with at least one semester CourseSys didn't deliver
+     *         (429 / 5xx / timeouts); empty if the step was clean
+     */
+    private Set<Long> crawlStep(
+            List<ApiCourseDTO> step, Map<Long, String> deptCodes, long oldest, long newest
+    ) throws InterruptedException {
+        Map<Long, ApiCourseDTO> byId = new LinkedHashMap<>();
+        for (ApiCourseDTO course : step) {
+            byId.put(course.getCourseId(), course);
+        }
+
+        Set<String> done = new HashSet<>();
+        for (CourseEnrollmentHistory row : historyRepository
+                .findByCourseIdInAndSemesterCodeBetween(byId.keySet(), oldest, newest)) {
+            done.add(row.getCourseId() + ":" + row.getSemesterCode());
+        }
+
+        Map<CourseSysKey, Long> courseIdByKey = new LinkedHashMap<>();
+        for (ApiCourseDTO course : step) {
+            String deptCode = deptCodes.get(course.getDeptId());
+            for (long code = newest; code >= oldest; code = SemesterUtil.previousSemesterCode(code)) {
+                if (!done.contains(course.getCourseId() + ":" + code)) {
+                    courseIdByKey.put(CourseSysKey.of(deptCode, course.getCourseNumber(), code), course.getCourseId());
+                }
+            }
+        }
+
+        coursesCrawled.increment(step.size());
+        if (courseIdByKey.isEmpty()) {
+            return Set.of();
+        }
+
+        // One token per upstream call (a step can span departments / semester sets)
+        throttledMs.increment(rateLimit.acquire(courseSysClient.plannedCallCount(courseIdByKey.keySet())));
+
+        Map<CourseSysKey, CourseSysBrowseResult> browses =
+                courseSysClient.fetchCourseSectionsBatch(courseIdByKey.keySet());
+
+        int failed = 0;
+        Set<Long> failedCourseIds = new HashSet<>();
+        for (Map.Entry<CourseSysKey, Long> entry : courseIdByKey.entrySet()) {
+            CourseSysBrowseResult browse = browses.get(entry.getKey());
+            if (browse == null || browse.isUnavailable()) {
+                failed++;
+                failedCourseIds.add(entry.getValue());
+                continue;
+            }
+            enrollmentHistoryService.materialize(entry.getValue(), entry.getKey().semesterCode(), browse);
+        }
+
+        fetchedOk.increment(courseIdByKey.size() - failed);
+        fetchedFailed.increment(failed);
+
+        if (failed > 0) {
+            return failedCourseIds;
+        }
+
+        // Additive increase
+        concurrency = Math.min(maxConcurrency, concurrency + 1);
+        backoffMs = 0;
+        return Set.of();
+    }
+
+    /**
+     * Brings the step's course_stats rows in line with the current window.
+     * Failure only delays it to the next pass.
+     */
+    private void recomputeStats(List<ApiCourseDTO> step) {
+        List<Long> courseIds = new ArrayList<>(step.size());
+        for (ApiCourseDTO course : step) {
+            courseIds.add(course.getCourseId());
+        }
+
+        try {
+            courseStatsService.recompute(courseIds);
+        } catch (DataAccessException e) {
+            log.warn("Course stats not recomputed for courses {}: {}", courseIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Multiplicative decrease + exponential pause after a failed step.
+     */
+    private void backOff() {
+        concurrency = Math.max(1, concurrency / 2);
+        backoffMs = backoffMs == 0 ? backoffBaseMs : Math.min(backoffMaxMs, backoffMs * 2);
+        backoffUntil = System.currentTimeMillis() + backoffMs;
+        log.warn("CourseSys crawl backing off for {} ms (concurrency now {})", backoffMs, concurrency);
+    }
+
+    private void updateCoverage(long oldest, long newest, int courseCount) {
+        coveredPairs.set(historyRepository.countBySemesterCodeBetween(oldest, newest));
+        totalPairs.set((long) courseCount * windowSemesters);
+    }
+
+    private double coverage() {
+        long total = totalPairs.get();
+        return total == 0 ? 0.0 : Math.min(1.0, (double) coveredPairs.get() / total);
+    }
+
+    private double passProgress() {
+        long size = passSize.get();
+        return size == 0 ? 0.0 : (double) passPosition.get() / size;
+    }
+}
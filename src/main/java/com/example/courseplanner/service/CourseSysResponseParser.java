@@ -0,0 +1,262 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.model.CourseSysOffering;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * =========================================================
+ * CourseSys Browse Response Parser (streaming)
+ *
+ * Reads a /browse/?tabledata=yes response straight from the
+ * HTTP stream into offerings, one token at a time:
+ *
+ *   {"data": [
+ *     ["Fall 2025", "<a href=\"/browse/info/2025fa-cmpt-276-d1\">CMPT 276 D100</a>",
+ *      "Intro to Software Engineering", "115 (+31)/100", "Bobby Chan", "Burnaby"],
+ *     ...
+ *   ]}
+ *
+ * No intermediate Map / List<List<String>> is built, and each
+ * cell is scanned once by index instead of split()/substring()
+ * chains. Enrollment ("115 (+31)/100") is read straight from
+ * Jackson's character buffer into ints.
+ *
+ * Fields other than "data" are skipped.
+ * =========================================================
+ */
+@Component
+public class CourseSysResponseParser {
+
+    // row format:
+    // [0]=term, [1]=html link, [2]=title,
+    // [3]=enrollment, [4]=instructor, [5]=campus
+    private static final int CELL_TERM = 0;
+    private static final int CELL_LINK = 1;
+    private static final int CELL_TITLE = 2;
+    private static final int CELL_ENROLLMENT = 3;
+    private static final int CELL_INSTRUCTOR = 4;
+    private static final int CELL_CAMPUS = 5;
+    private static final int CELLS = 6;
+
+    private final JsonFactory jsonFactory;
+
+    public CourseSysResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * One table row: the offering plus what's needed to tell which
+     * (course, semester) of a batch call it belongs to.
+     *
+     * @param term Term column as shown (e.g. "Fall 2025")
+     * @param courseNumber Course number from the link text (e.g. "276")
+     * @param title Course title
+     * @param offering Parsed section
+     */
+    public record Row(String term, String courseNumber, String title, CourseSysOffering offering) { }
+
+    /**
+     * Parses a browse response body.
+     *
+     * @param body Response stream (not closed by this method)
+     * @return Rows in response order, or null if the body is empty
+     * @throws IOException if the body is not the expected JSON
+     */
+    public List<Row> parse(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return null;
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object, got " + first);
+            }
+
+            List<Row> rows = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    readRows(parser, rows);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return rows;
+        }
+    }
+
+    private void readRows(JsonParser parser, List<Row> rows) throws IOException {
+        JsonToken token;
+        while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY) {
+                Row row = readRow(parser);
+                if (row != null) {
+                    rows.add(row);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads one row array (parser is on its START_ARRAY).
+     *
+     * @return Parsed row, or null if the row is too short or has no link
+     */
+    private Row readRow(JsonParser parser) throws IOException {
+        String term = null;
+        String link = null;
+        String title = null;
+        String instructor = null;
+        String campus = null;
+
+        CourseSysOffering offering = new CourseSysOffering();
+
+        int cell = 0;
+        JsonToken token;
+        while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+            } else if (token == JsonToken.VALUE_STRING) {
+                switch (cell) {
+                    case CELL_TERM -> term = parser.getText();
+                    case CELL_LINK -> link = parser.getText();
+                    case CELL_TITLE -> title = parser.getText();
+                    case CELL_ENROLLMENT -> readEnrollment(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), offering);
+                    case CELL_INSTRUCTOR -> instructor = parser.getText();
+                    case CELL_CAMPUS -> campus = parser.getText();
+                    default -> { }
+                }
+            }
+            cell++;
+        }
+
+        if (cell < CELLS || link == null) {
+            return null;
+        }
+
+        int textStart = link.indexOf('>') + 1;
+        int textEnd = link.indexOf("</", textStart);
+        if (textStart <= 0 || textEnd < 0) {
+            return null;
+        }
+
+        offering.setSection(lastToken(link, textStart, textEnd));    // "D100"
+        offering.setInfoUrl(href(link));                             // "/browse/info/2025fa-cmpt-276-d1"
+        offering.setInstructor(instructor);
+        offering.setCampus(campus);
+
+        return new Row(term, secondToken(link, textStart, textEnd), title, offering);
+    }
+
+    private static JsonToken nextToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of CourseSys response");
+        }
+        return token;
+    }
+
+    // -----------------------------
+    // Cell scanners
+    // -----------------------------
+
+    /**
+     * "115 (+31)/100" → enrolled=115, waitlist=31, capacity=100.
+     * Missing parts are read as 0.
+     */
+    private static void readEnrollment(char[] buf, int offset, int length, CourseSysOffering offering) {
+        int end = offset + length;
+
+        int slash = offset;
+        while (slash < end && buf[slash] != '/') {
+            slash++;
+        }
+
+        int plus = offset;
+        while (plus < slash && buf[plus] != '+') {
+            plus++;
+        }
+
+        int enrolled = firstNumber(buf, offset, plus);
+        int waitlist = plus < slash ? firstNumber(buf, plus + 1, slash) : 0;
+        int capacity = slash < end ? firstNumber(buf, slash + 1, end) : 0;
+
+        offering.setEnrollment(enrolled, waitlist, capacity);
+    }
+
+    /**
+     * Value of the first run of digits in buf[from, to), or 0 if none.
+     */
+    private static int firstNumber(char[] buf, int from, int to) {
+        int i = from;
+        while (i < to && (buf[i] < '0' || buf[i] > '9')) {
+            i++;
+        }
+
+        int value = 0;
+        while (i < to && buf[i] >= '0' && buf[i] <= '9') {
+            value = value * 10 + (buf[i] - '0');
+            i++;
+        }
+        return value;
+    }
+
+    /**
+     * Last whitespace-separated token of s[from, to): "CMPT 276 D100" → "D100"
+     */
+    private static String lastToken(String s, int from, int to) {
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        int start = to;
+        while (start > from && !Character.isWhitespace(s.charAt(start - 1))) {
+            start--;
+        }
+        return s.substring(start, to);
+    }
+
+    /**
+     * Second whitespace-separated token of s[from, to): "CMPT 276 D100" → "276"
+     */
+    private static String secondToken(String s, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(s.charAt(i))) i++;
+        while (i < to && !Character.isWhitespace(s.charAt(i))) i++;
+        while (i < to && Character.isWhitespace(s.charAt(i))) i++;
+
+        int start = i;
+        while (i < to && !Character.isWhitespace(s.charAt(i))) i++;
+
+        return start < i ? s.substring(start, i) : null;
+    }
+
+    /**
+     * href="/browse/info/..." → "/browse/info/..."
+     */
+    private static String href(String html) {
+        int start = html.indexOf("href=\"");
+        if (start < 0) {
+            return null;
+        }
+        start += 6;
+        int end = html.indexOf('"', start);
+        return end < 0 ? null : html.substring(start, end);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.dto.ApiEnrollmentDataPointDTO;
+import com.example.courseplanner.entity.Course;
+import com.example.courseplanner.entity.CourseEnrollmentHistory;
+import com.example.courseplanner.model.CourseSysBrowseResult;
+import com.example.courseplanner.model.CourseSysKey;
+import com.example.courseplanner.model.CourseSysOffering;
+import com.example.courseplanner.repository.CourseEnrollmentHistoryRepository;
+import com.example.courseplanner.utils.SemesterUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * =========================================================
+ * Enrollment History Service
+ *
+ * Serves per-semester enrollment totals for a course from the
+ * materialized course_enrollment_history table:
+ *
+ * - Closed semesters: one indexed range scan on
+ *   (course_id, semester_code); CourseSys is not called
+ * - Current / enrolling / future semesters: always fetched
+ *   live (batched) and merged in, never stored
+ * - Closed semesters missing from the table: fetched once and
+ *   written through, so the next view is a pure table read
+ *
+ * CourseSysCrawler fills the table ahead of time for every
+ * course. Results CourseSys could not deliver are never
+ * materialized. Every newly stored row is folded into
+ * course_stats (CourseStatsService) in the same transaction.
+ * =========================================================
+ */
+@Service
+public class EnrollmentHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentHistoryService.class);
+
+    private final CourseEnrollmentHistoryRepository historyRepository;
+    private final CourseSysClient courseSysClient;
+    private final TermService termService;
+    private final CourseStatsService courseStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public EnrollmentHistoryService(
+        CourseEnrollmentHistoryRepository historyRepository,
+        CourseSysClient courseSysClient,
+        TermService termService,
+        CourseStatsService courseStatsService,
+        TransactionTemplate transactionTemplate
+    ) {
+        this.historyRepository = historyRepository;
+        this.courseSysClient = courseSysClient;
+        this.termService = termService;
+        this.courseStatsService = courseStatsService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Enrollment totals for a course, one data point per semester.
+     *
+     * @param course Course (with department loaded)
+     * @param semesters Semesters to report, in the order to return them
+     * @return One data point per semester (zeros if the course wasn't offered)
+     */
+    public List<ApiEnrollmentDataPointDTO> getHistory(Course course, List<SemesterUtil.Prev> semesters) {
+        return getHistory(course, semesters, courseSysClient::fetchCourseSectionsBatch);
+    }
+
+    /**
+     * Same as getHistory(course, semesters), with the caller doing the
+     * CourseSys fetch for semesters the table can't answer. Lets a caller
+     * that needs other semesters of the same course fold them into the
+     * same batch (see CoursePageService).
+     *
+     * @param fetchMissing Given the keys not in the table, returns a result for each
+     */
+    public List<ApiEnrollmentDataPointDTO> getHistory(
+        Course course,
+        List<SemesterUtil.Prev> semesters,
+        Function<List<CourseSysKey>, Map<CourseSysKey, CourseSysBrowseResult>> fetchMissing
+    ) {
+        if (semesters.isEmpty()) {
+            return List.of();
+        }
+
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (SemesterUtil.Prev semester : semesters) {
+            from = Math.min(from, semester.semesterCode());
+            to = Math.max(to, semester.semesterCode());
+        }
+
+        // 1. Closed semesters from the table (single range scan)
+        Map<Long, Totals> totals = new HashMap<>();
+        for (CourseEnrollmentHistory row : historyRepository
+                .findByCourseIdAndSemesterCodeBetweenOrderBySemesterCodeAsc(course.getCourseId(), from, to)) {
+            if (termService.isHistorical(row.getSemesterCode())) {
+                totals.put(row.getSemesterCode(), Totals.of(row));
+            }
+        }
+
+        // 2. Everything else (live semesters + not yet materialized) in one batch
+        List<CourseSysKey> missing = new ArrayList<>();
+        for (SemesterUtil.Prev semester : semesters) {
+            if (!totals.containsKey(semester.semesterCode())) {
+                missing.add(CourseSysKey.of(
+                        course.getDepartment().getDeptCode(),
+                        course.getCourseNumber(),
+                        semester.semesterCode()
+                ));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<CourseSysKey, CourseSysBrowseResult> browses = fetchMissing.apply(missing);
+            for (CourseSysKey key : missing) {
+                CourseSysBrowseResult browse = browses.get(key);
+                totals.put(key.semesterCode(), Totals.of(browse));
+                materialize(course.getCourseId(), key.semesterCode(), browse);
+            }
+        }
+
+        // 3. Data points in the requested order
+        List<ApiEnrollmentDataPointDTO> results = new ArrayList<>(semesters.size());
+        for (SemesterUtil.Prev semester : semesters) {
+            Totals t = totals.get(semester.semesterCode());
+            results.add(new ApiEnrollmentDataPointDTO(
+                    semester.semesterCode(),
+                    SemesterUtil.capitalize(semester.term()),
+                    semester.year(),
+                    t.enrolled(),
+                    t.capacity(),
+                    t.loadPercent()
+            ));
+        }
+        return results;
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    /**
+     * Stores totals for a closed semester. Live semesters and results
+     * CourseSys couldn't deliver are skipped.
+     *
+     * @param courseId Course id
+     * @param semesterCode Semester the result is for
+     * @param browse CourseSys result (may be null)
+     * @return true if a row was written
+     */
+    public boolean materialize(Long courseId, long semesterCode, CourseSysBrowseResult browse) {
+        if (browse == null || browse.isUnavailable() || !termService.isHistorical(semesterCode)) {
+            return false;
+        }
+
+        Totals t = Totals.of(browse);
+        CourseEnrollmentHistory row = new CourseEnrollmentHistory(courseId, semesterCode);
+        row.setTotalEnrolled(t.enrolled());
+        row.setTotalCapacity(t.capacity());
+        row.setLoadPercent(t.loadPercent());
+        row.setSectionCount(t.sectionCount());
+
+        // History row + course_stats in one transaction: the aggregate never
+        // lags behind a stored row
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                historyRepository.save(row);
+                courseStatsService.applySemester(courseId, semesterCode);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            // Another request/node wrote it first (unique key) or DB hiccup; table is a cache
+            log.debug("Enrollment history not stored for course {} semester {}: {}",
+                    courseId, semesterCode, e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Enrollment summed across all sections of one semester.
+     */
+    private record Totals(int enrolled, int capacity, double loadPercent, int sectionCount) {
+
+        static Totals of(CourseEnrollmentHistory row) {
+            return new Totals(row.getTotalEnrolled(), row.getTotalCapacity(),
+                    row.getLoadPercent(), row.getSectionCount());
+        }
+
+        static Totals of(CourseSysBrowseResult browse) {
+            int enrolled = 0;
+            int capacity = 0;
+            int sections = 0;
+            if (browse != null) {
+                for (CourseSysOffering offering : browse.getOfferings()) {
+                    // @TODO: only consider lecture sections (includes D, SEM, LAB?, etc)
+                    capacity += offering.getCapacityCount();
+                    enrolled += offering.getEnrolledCount();
+                    sections++;
+                }
+            }
+            return new Totals(enrolled, capacity,
+                    capacity == 0 ? 0.0 : (enrolled * 100.0) / capacity, sections);
+        }
+    }
+}
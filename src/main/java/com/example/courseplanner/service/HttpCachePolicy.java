@@ -0,0 +1,89 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.model.CourseSysBrowseResult;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * =========================================================
+ * HTTP Cache Policy
+ *
+ * Decides the Cache-Control lifetime of read-only API responses:
+ *
+ * - Catalog (departments, courses, grade stats): changes only
+ *   when the scraper runs; medium lifetime, revalidated with
+ *   the catalog version ETag
+ * - Closed semesters only: CourseSys data is final; long lifetime
+ * - Anything with the current / enrolling / future semester:
+ *   live enrollment counts; short lifetime
+ * - Degraded CourseSys answers: stale (served from the last
+ *   good copy) → short lifetime; unavailable → no-store, so
+ *   an outage is never cached by browsers or the CDN
+ *
+ * ETags themselves are set by the endpoints (catalog version)
+ * or by the content ETag filter (see HttpCachingConfig).
+ * =========================================================
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final TermService termService;
+    private final Duration catalogMaxAge;
+    private final Duration closedMaxAge;
+    private final Duration liveMaxAge;
+
+    public HttpCachePolicy(
+        TermService termService,
+        @Value("${http.cache.catalog-max-age-seconds:3600}") long catalogMaxAgeSeconds,
+        @Value("${http.cache.closed-max-age-seconds:86400}") long closedMaxAgeSeconds,
+        @Value("${http.cache.live-max-age-seconds:60}") long liveMaxAgeSeconds
+    ) {
+        this.termService = termService;
+        this.catalogMaxAge = Duration.ofSeconds(catalogMaxAgeSeconds);
+        this.closedMaxAge = Duration.ofSeconds(closedMaxAgeSeconds);
+        this.liveMaxAge = Duration.ofSeconds(liveMaxAgeSeconds);
+    }
+
+    /**
+     * @return Cache-Control for catalog data
+     */
+    public CacheControl catalog() {
+        return CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
+
+    /**
+     * @param semesterCodes Semesters the response is built from
+     * @return Long lifetime if every semester is closed, otherwise short
+     */
+    public CacheControl forSemesters(Collection<Long> semesterCodes) {
+        boolean allClosed = !semesterCodes.isEmpty()
+                && semesterCodes.stream().allMatch(termService::isHistorical);
+
+        return CacheControl.maxAge(allClosed ? closedMaxAge : liveMaxAge).cachePublic();
+    }
+
+    /**
+     * @param semesterCodes Semesters the response is built from
+     * @param browses CourseSys results the response is built from
+     * @return As forSemesters, but short if any result is stale and
+     *         no-store if any is unavailable
+     */
+    public CacheControl forSemesters(Collection<Long> semesterCodes, Collection<CourseSysBrowseResult> browses) {
+        boolean stale = false;
+        for (CourseSysBrowseResult browse : browses) {
+            if (browse == null || browse.isUnavailable()) {
+                return CacheControl.noStore();
+            }
+            stale |= browse.isStale();
+        }
+
+        return stale
+                ? CacheControl.maxAge(liveMaxAge).cachePublic()
+                : forSemesters(semesterCodes);
+    }
+}
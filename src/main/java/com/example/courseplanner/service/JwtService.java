@@ -1,37 +1,50 @@
 package com.example.courseplanner.service;
 
+import com.example.courseplanner.utils.RequestTiming;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * =========================================================
- * JWT Verification Service (Supabase API Call)
+ * JWT Verification Service
  * 
- * Verifies JWTs by calling Supabase's user endpoint.
+ * Turns an Authorization header into a verified Supabase userId.
  * 
- * How It Works:
+ * Modes (supabase.jwt.verification):
+ * 
+ * local (default)
+ * 1. Receive JWT from Authorization header
+ * 2. Check signature in-process (HS256 secret or cached JWKS)
+ *    and exp/nbf/iss claims (see LocalJwtVerifier)
+ * 3. userId = "sub" claim
+ * - Microseconds per request, works while Supabase is slow
+ * - If a token can't be checked locally (no secret, JWKS
+ *   unreachable, unknown alg) and supabase.jwt.remote-fallback
+ *   is on, falls back to the remote check below
+ * 
+ * remote
  * 1. Receive JWT from Authorization header
  * 2. Forward JWT to Supabase: GET /auth/v1/user
  * 3. Supabase verifies the JWT and returns user data
  * 4. Extract userId from response
- * 
- * Advantages:
- * - No JWT library needed
- * - No algorithm complexity (HS256/RS256/etc)
- * - Supabase handles all verification logic
- * - Always correct (source of truth)
- * - Works with any Supabase JWT type
- * 
- * Trade-off:
+ * - Always correct (source of truth, sees revoked sessions)
  * - Adds ~50-100ms latency per request
  * - Requires Supabase to be available
- * 
- * For most applications, this trade-off is acceptable.
+ * - Answers are cached per token (TokenVerificationCache) until
+ *   the token's exp or a max TTL; rejections are cached briefly
+ * - Timed as "supabase.auth.verify" (tagged outcome); calls in
+ *   progress as "supabase.auth.inflight"
  * =========================================================
  */
 @Service
@@ -43,33 +56,129 @@ public class JwtService {
     @Value("${supabase.anon.key}")
     private String supabaseAnonKey;
 
+    @Value("${supabase.jwt.verification:local}")
+    private String verificationMode;
+
+    @Value("${supabase.jwt.remote-fallback:true}")
+    private boolean remoteFallback;
+
     private final RestTemplate restTemplate;
+    private final LocalJwtVerifier localJwtVerifier;
+    private final TokenVerificationCache tokenCache;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger supabaseInFlight = new AtomicInteger();
+
+    public JwtService(
+        RestTemplate restTemplate,
+        LocalJwtVerifier localJwtVerifier,
+        TokenVerificationCache tokenCache,
+        MeterRegistry meterRegistry
+    ) {
+        this.restTemplate = restTemplate;
+        this.localJwtVerifier = localJwtVerifier;
+        this.tokenCache = tokenCache;
+        this.meterRegistry = meterRegistry;
 
-    public JwtService() {
-        this.restTemplate = new RestTemplate();
+        Gauge.builder("supabase.auth.inflight", supabaseInFlight, AtomicInteger::get)
+            .description("Supabase /auth/v1/user calls currently in progress")
+            .register(meterRegistry);
     }
 
     /**
      * Extracts userId from Authorization header.
      * 
      * This is the main method controllers will call.
-     * It verifies the JWT by calling Supabase API.
+     * It verifies the JWT locally or via the Supabase API (see class docs).
      * 
      * @param authHeader Authorization header value (e.g., "Bearer eyJhbGci...")
-     * @return Verified userId from Supabase
+     * @return Verified userId
      * @throws RuntimeException if token is invalid, expired, or missing
      */
     public String extractUserId(String authHeader) {
         // 1. Extract JWT from "Bearer {token}" header
         String token = extractTokenFromHeader(authHeader);
         
-        // 2. Verify JWT with Supabase and get user data
-        Map<String, Object> userData = verifyTokenWithSupabase(token);
+        // 2. Verify JWT and get user data
+        Map<String, Object> userData = verifyToken(token);
         
         // 3. Extract userId from response
         return extractUserIdFromResponse(userData);
     }
 
+    /**
+     * @return Active verification mode ("local" or "remote")
+     */
+    public String getVerificationMode() {
+        return verificationMode;
+    }
+
+    /**
+     * Verifies a JWT using the configured mode.
+     * 
+     * Local verification returns the token's claims, with the "sub"
+     * claim copied to "id" so callers see the same shape as the
+     * Supabase /auth/v1/user response.
+     * 
+     * @param token JWT token
+     * @return User data (always contains "id")
+     * @throws RuntimeException if token verification fails
+     */
+    private Map<String, Object> verifyToken(String token) {
+        long start = System.nanoTime();
+        try {
+            return verifyTokenByMode(token);
+        } finally {
+            RequestTiming.record(RequestTiming.Category.JWT, start, verificationMode);
+        }
+    }
+
+    private Map<String, Object> verifyTokenByMode(String token) {
+        if (!"remote".equalsIgnoreCase(verificationMode)) {
+            Optional<Map<String, Object>> claims = localJwtVerifier.verify(token);
+
+            if (claims.isPresent()) {
+                Map<String, Object> userData = new HashMap<>(claims.get());
+                userData.put("id", claims.get().get("sub"));
+                return userData;
+            }
+
+            if (!remoteFallback) {
+                throw new RuntimeException("JWT could not be verified locally");
+            }
+        }
+
+        return verifyTokenRemotely(token);
+    }
+
+    /**
+     * Remote verification with a per-token answer cache.
+     * 
+     * @param token JWT token
+     * @return User data from Supabase (possibly cached)
+     * @throws RuntimeException if token verification fails
+     */
+    private Map<String, Object> verifyTokenRemotely(String token) {
+        Map<String, Object> cached = tokenCache.getVerified(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (tokenCache.isRejected(token)) {
+            throw new RuntimeException("JWT token is invalid or expired");
+        }
+
+        try {
+            Map<String, Object> userData = verifyTokenWithSupabase(token);
+            tokenCache.putVerified(token, userData, localJwtVerifier.peekExpiryMillis(token));
+            return userData;
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof HttpClientErrorException.Unauthorized) {
+                tokenCache.putRejected(token);
+            }
+            throw e;
+        }
+    }
+
     /**
      * Extracts JWT token from Authorization header.
      * 
@@ -95,6 +204,32 @@ public class JwtService {
         return token;
     }
 
+    /**
+     * Timed wrapper around requestSupabaseUser.
+     */
+    private Map<String, Object> verifyTokenWithSupabase(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        supabaseInFlight.incrementAndGet();
+        String outcome = "error";
+
+        try {
+            Map<String, Object> userData = requestSupabaseUser(token);
+            outcome = "success";
+            return userData;
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof HttpClientErrorException.Unauthorized) {
+                outcome = "unauthorized";
+            }
+            throw e;
+        } finally {
+            supabaseInFlight.decrementAndGet();
+            sample.stop(Timer.builder("supabase.auth.verify")
+                .description("Remote JWT verification against Supabase")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
     /**
      * Verifies JWT by calling Supabase's user endpoint.
      * 
@@ -120,7 +255,7 @@ public class JwtService {
      * @throws RuntimeException if token verification fails
      */
     @SuppressWarnings("unchecked")
-    private Map<String, Object> verifyTokenWithSupabase(String token) {
+    private Map<String, Object> requestSupabaseUser(String token) {
         try {
             // Build URL
             String url = supabaseProjectUrl + "/auth/v1/user";
@@ -194,11 +329,11 @@ public class JwtService {
      * Useful if you need email, role, etc. without separate DB query.
      * 
      * @param authHeader Authorization header
-     * @return Full user data from Supabase
+     * @return Full user data (Supabase user, or token claims in local mode)
      */
     public Map<String, Object> getUserData(String authHeader) {
         String token = extractTokenFromHeader(authHeader);
-        return verifyTokenWithSupabase(token);
+        return verifyToken(token);
     }
 
     /**
@@ -0,0 +1,286 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.dto.ApiCourseDTO;
+import com.example.courseplanner.dto.ApiDepartmentDTO;
+import com.example.courseplanner.model.CatalogSnapshot;
+import com.example.courseplanner.model.CourseSysBrowseResult;
+import com.example.courseplanner.model.CourseSysKey;
+import com.example.courseplanner.repository.BookmarkRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * =========================================================
+ * Live Refresh Scheduler
+ *
+ * Keeps enrolling-semester data (enrollment counts change by
+ * the minute) warm in CourseSysCache, spending the upstream
+ * budget where students are actually looking.
+ *
+ * Popularity score per course =
+ *   decayed request count (CourseDemandTracker, half-life
+ *   refresh.demand-half-life-minutes)
+ *   + refresh.bookmark-weight × bookmarks for the semester
+ *
+ * Tiers (refresh interval; cache lifetime is 2× the interval):
+ * - HOT  (score ≥ refresh.hot-score)  every refresh.hot-interval-seconds
+ * - WARM (score > 0)                  every refresh.warm-interval-seconds
+ * - COLD (everything else)            every refresh.cold-interval-seconds
+ *
+ * Each tick refreshes the most popular due courses first, up to
+ * refresh.max-courses-per-tick, in batched CourseSys calls.
+ * When CourseSys fails:
+ * - Ticks are skipped while the circuit breaker is open; once it
+ *   opens mid-tick, the remaining batches fail fast without calls
+ * - A course that couldn't be refreshed waits a full tier
+ *   interval before it is tried again (users still fetch it on
+ *   demand), so errors don't resend the same courses every tick
+ *
+ * Freshness is visible to clients via fetchedAt on offerings.
+ * =========================================================
+ */
+@Service
+public class LiveRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveRefreshScheduler.class);
+
+    enum Tier { HOT, WARM, COLD }
+
+    private final CatalogService catalogService;
+    private final TermService termService;
+    private final CourseSysClient courseSysClient;
+    private final CourseSysCache cache;
+    private final CourseDemandTracker demandTracker;
+    private final BookmarkRepository bookmarkRepository;
+
+    private final boolean enabled;
+    private final double hotScore;
+    private final double bookmarkWeight;
+    private final double decayPerTick;
+    private final int maxCoursesPerTick;
+    private final long bookmarkRefreshMs;
+    private final Map<Tier, Long> intervalMs = new EnumMap<>(Tier.class);
+
+    // Scheduler-thread state
+    private final Map<CourseDemandTracker.CourseRef, Double> demandScores = new HashMap<>();
+    private final Map<CourseDemandTracker.CourseRef, Long> lastRefreshed = new HashMap<>();
+    private Map<Long, Long> bookmarksByCourseId = Map.of();
+    private long bookmarksLoadedAt = 0;
+    private Long trackedSemesterCode;
+
+    // Metrics surface
+    private final Map<Tier, AtomicInteger> tierSizes = new ConcurrentHashMap<>();
+    private final Map<Tier, Counter> refreshed = new EnumMap<>(Tier.class);
+
+    public LiveRefreshScheduler(
+        CatalogService catalogService,
+        TermService termService,
+        CourseSysClient courseSysClient,
+        CourseSysCache cache,
+        CourseDemandTracker demandTracker,
+        BookmarkRepository bookmarkRepository,
+        MeterRegistry meterRegistry,
+        @Value("${refresh.enabled:true}") boolean enabled,
+        @Value("${refresh.tick-ms:15000}") long tickMs,
+        @Value("${refresh.hot-score:5}") double hotScore,
+        @Value("${refresh.bookmark-weight:2}") double bookmarkWeight,
+        @Value("${refresh.demand-half-life-minutes:30}") double halfLifeMinutes,
+        @Value("${refresh.hot-interval-seconds:60}") long hotIntervalSeconds,
+        @Value("${refresh.warm-interval-seconds:600}") long warmIntervalSeconds,
+        @Value("${refresh.cold-interval-seconds:3600}") long coldIntervalSeconds,
+        @Value("${refresh.max-courses-per-tick:100}") int maxCoursesPerTick,
+        @Value("${refresh.bookmark-counts-refresh-seconds:300}") long bookmarkRefreshSeconds
+    ) {
+        this.catalogService = catalogService;
+        this.termService = termService;
+        this.courseSysClient = courseSysClient;
+        this.cache = cache;
+        this.demandTracker = demandTracker;
+        this.bookmarkRepository = bookmarkRepository;
+        this.enabled = enabled;
+        this.hotScore = hotScore;
+        this.bookmarkWeight = bookmarkWeight;
+        this.decayPerTick = Math.pow(0.5, tickMs / (halfLifeMinutes * 60_000));
+        this.maxCoursesPerTick = maxCoursesPerTick;
+        this.bookmarkRefreshMs = bookmarkRefreshSeconds * 1000;
+
+        intervalMs.put(Tier.HOT, hotIntervalSeconds * 1000);
+        intervalMs.put(Tier.WARM, warmIntervalSeconds * 1000);
+        intervalMs.put(Tier.COLD, coldIntervalSeconds * 1000);
+
+        for (Tier tier : Tier.values()) {
+            String name = tier.name().toLowerCase();
+            AtomicInteger size = new AtomicInteger();
+            tierSizes.put(tier, size);
+            Gauge.builder("coursys.refresh.courses", size, AtomicInteger::get)
+                    .tag("tier", name)
+                    .description("Courses in each live-refresh popularity tier")
+                    .register(meterRegistry);
+            refreshed.put(tier, Counter.builder("coursys.refresh.fetches")
+                    .tag("tier", name)
+                    .description("Live-semester course refreshes by tier")
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${refresh.tick-ms:15000}",
+        initialDelayString = "${refresh.initial-delay-ms:30000}"
+    )
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        // CourseSys is failing: don't queue refreshes that would only be rejected
+        if (courseSysClient.isCircuitOpen()) {
+            log.debug("Live refresh skipped: CourseSys circuit breaker is open");
+            return;
+        }
+
+        Long semesterCode = termService.getEnrollingSemesterCode();
+        if (semesterCode == null) {
+            semesterCode = termService.getCurrentSemesterCode();
+        }
+        if (semesterCode == null) {
+            return;
+        }
+
+        // Term rollover: old refresh times don't apply to the new semester
+        if (!semesterCode.equals(trackedSemesterCode)) {
+            lastRefreshed.clear();
+            bookmarksLoadedAt = 0;
+            trackedSemesterCode = semesterCode;
+        }
+
+        foldDemand();
+        loadBookmarkCounts(semesterCode);
+
+        // Score and tier every catalog course, keep the ones due for a refresh
+        CatalogSnapshot catalog = catalogService.snapshot();
+        Map<Long, String> deptCodes = new HashMap<>();
+        for (ApiDepartmentDTO department : catalog.departments()) {
+            deptCodes.put(department.getDeptId(), department.getDeptCode());
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Tier, Integer> sizes = new EnumMap<>(Tier.class);
+        List<Candidate> due = new ArrayList<>();
+
+        for (List<ApiCourseDTO> courses : catalog.coursesByDeptId().values()) {
+            for (ApiCourseDTO course : courses) {
+                CourseDemandTracker.CourseRef ref = new CourseDemandTracker.CourseRef(
+                        deptCodes.get(course.getDeptId()).toUpperCase(),
+                        course.getCourseNumber().trim().toUpperCase());
+
+                double score = demandScores.getOrDefault(ref, 0.0)
+                        + bookmarkWeight * bookmarksByCourseId.getOrDefault(course.getCourseId(), 0L);
+                Tier tier = score >= hotScore ? Tier.HOT : score > 0 ? Tier.WARM : Tier.COLD;
+                sizes.merge(tier, 1, Integer::sum);
+
+                Long last = lastRefreshed.get(ref);
+                if (last == null || now - last >= intervalMs.get(tier)) {
+                    due.add(new Candidate(ref, tier, score));
+                }
+            }
+        }
+
+        for (Tier tier : Tier.values()) {
+            tierSizes.get(tier).set(sizes.getOrDefault(tier, 0));
+        }
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        due.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        List<Candidate> batch = due.subList(0, Math.min(maxCoursesPerTick, due.size()));
+
+        refresh(batch, semesterCode);
+    }
+
+    /**
+     * Refreshes one tick's worth of courses and re-caches them for their tier's lifetime.
+     */
+    private void refresh(List<Candidate> batch, long semesterCode) {
+        Map<CourseSysKey, Candidate> byKey = new HashMap<>();
+        for (Candidate candidate : batch) {
+            byKey.put(CourseSysKey.of(candidate.ref().dept(), candidate.ref().courseNumber(), semesterCode), candidate);
+        }
+
+        Map<CourseSysKey, CourseSysBrowseResult> results = courseSysClient.refreshCourseSections(byKey.keySet());
+
+        long now = System.currentTimeMillis();
+        int failed = 0;
+
+        for (Map.Entry<CourseSysKey, Candidate> entry : byKey.entrySet()) {
+            CourseSysBrowseResult result = results.get(entry.getKey());
+
+            // Failed or not, the course isn't due again for a full interval (backoff)
+            lastRefreshed.put(entry.getValue().ref(), now);
+
+            if (result == null || result.isUnavailable()) {
+                failed++;
+                continue;
+            }
+
+            Tier tier = entry.getValue().tier();
+            cache.put(entry.getKey(), result, intervalMs.get(tier) * 2);
+            refreshed.get(tier).increment();
+        }
+
+        if (failed > 0) {
+            log.warn("Live refresh: {} of {} courses unavailable from CourseSys, retrying after their tier interval",
+                    failed, byKey.size());
+        }
+    }
+
+    /**
+     * Decays existing demand scores and adds the requests since the last tick.
+     */
+    private void foldDemand() {
+        demandScores.replaceAll((course, score) -> score * decayPerTick);
+        demandScores.values().removeIf(score -> score < 0.01);
+        demandTracker.drain().forEach((course, n) -> demandScores.merge(course, n.doubleValue(), Double::sum));
+    }
+
+    /**
+     * Reloads bookmark counts for the semester (one GROUP BY query) every few minutes.
+     */
+    private void loadBookmarkCounts(long semesterCode) {
+        long now = System.currentTimeMillis();
+        if (now - bookmarksLoadedAt < bookmarkRefreshMs) {
+            return;
+        }
+
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : bookmarkRepository.countByCourseForSemester(semesterCode)) {
+                counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            bookmarksByCourseId = counts;
+        } catch (DataAccessException e) {
+            log.warn("Could not load bookmark counts, keeping previous: {}", e.getMessage());
+        }
+        bookmarksLoadedAt = now;
+    }
+
+    private record Candidate(CourseDemandTracker.CourseRef ref, Tier tier, double score) { }
+}
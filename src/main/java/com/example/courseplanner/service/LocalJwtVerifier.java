@@ -0,0 +1,329 @@
+package com.example.courseplanner.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * =========================================================
+ * Local JWT Verifier (no network on the hot path)
+ *
+ * Verifies Supabase access tokens in-process:
+ * - HS256: HMAC with the project's JWT secret (supabase.jwt.secret)
+ * - RS256 / ES256: public keys from the project's JWKS endpoint
+ *   (/auth/v1/.well-known/jwks.json), cached and re-fetched on
+ *   an unknown key id or after the cache TTL
+ *
+ * Then checks exp / nbf (with a small clock-skew allowance), that
+ * iss is this project's auth server and that aud is the user
+ * audience (supabase.jwt.audience, "authenticated"), so tokens
+ * signed for other audiences (e.g. anon / service keys) are
+ * rejected. alg "none" is always rejected.
+ *
+ * Returns Optional.empty() when the token can't be checked locally
+ * (no secret configured, JWKS unreachable, unknown algorithm) so
+ * JwtService can fall back to asking Supabase.
+ * =========================================================
+ */
+@Component
+public class LocalJwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalJwtVerifier.class);
+
+    private static final Base64.Decoder BASE64_URL = Base64.getUrlDecoder();
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() { };
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final String issuer;
+    private final String audience;
+    private final String jwksUrl;
+    private final byte[] hmacSecret;
+    private final long clockSkewSeconds;
+    private final long jwksTtlMs;
+    private final long jwksMinRefreshMs;
+
+    // kid → public key, replaced wholesale on refresh
+    private volatile Map<String, PublicKey> jwks = Map.of();
+    private volatile long jwksLoadedAt = 0;
+
+    public LocalJwtVerifier(
+        RestTemplate restTemplate,
+        ObjectMapper objectMapper,
+        @Value("${supabase.project.url}") String supabaseProjectUrl,
+        @Value("${supabase.jwt.secret:}") String jwtSecret,
+        @Value("${supabase.jwt.clock-skew-seconds:30}") long clockSkewSeconds,
+        @Value("${supabase.jwt.jwks-ttl-seconds:600}") long jwksTtlSeconds,
+        @Value("${supabase.jwt.audience:authenticated}") String audience
+    ) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.issuer = supabaseProjectUrl + "/auth/v1";
+        this.audience = audience;
+        this.jwksUrl = supabaseProjectUrl + "/auth/v1/.well-known/jwks.json";
+        this.hmacSecret = jwtSecret.isEmpty() ? null : jwtSecret.getBytes(StandardCharsets.UTF_8);
+        this.clockSkewSeconds = clockSkewSeconds;
+        this.jwksTtlMs = jwksTtlSeconds * 1000;
+        this.jwksMinRefreshMs = 30_000;
+    }
+
+    /**
+     * Verifies a JWT's signature and claims (exp / nbf / iss / aud / sub).
+     *
+     * @param token Raw JWT (without "Bearer ")
+     * @return Verified claims, or empty if this token can't be verified locally
+     * @throws RuntimeException if the token is malformed, forged, or expired
+     */
+    public Optional<Map<String, Object>> verify(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new RuntimeException("JWT is malformed");
+        }
+
+        Map<String, Object> header = decodeJson(parts[0]);
+        Object alg = header.get("alg");
+        Object kid = header.get("kid");
+
+        byte[] signingInput = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = decode(parts[2]);
+
+        Boolean valid;
+        if ("HS256".equals(alg)) {
+            valid = verifyHmac(signingInput, signature);
+        } else if ("RS256".equals(alg) || "ES256".equals(alg)) {
+            valid = verifyWithJwks((String) alg, kid != null ? kid.toString() : null, signingInput, signature);
+        } else if (alg == null || "none".equalsIgnoreCase(alg.toString())) {
+            // Unsigned: never acceptable, not even via the remote fallback
+            throw new RuntimeException("JWT token is not signed");
+        } else {
+            log.debug("JWT alg {} not supported locally", alg);
+            return Optional.empty();
+        }
+
+        if (valid == null) {
+            return Optional.empty();
+        }
+        if (!valid) {
+            throw new RuntimeException("JWT token signature is invalid");
+        }
+
+        Map<String, Object> claims = decodeJson(parts[1]);
+        checkClaims(claims);
+        return Optional.of(claims);
+    }
+
+    /**
+     * Reads the exp claim WITHOUT verifying the token.
+     * 
+     * Only for bounding how long an already-verified answer is cached.
+     * 
+     * @param token Raw JWT
+     * @return exp in epoch millis, or null if absent/unreadable
+     */
+    public Long peekExpiryMillis(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            Object exp = parts.length == 3 ? decodeJson(parts[1]).get("exp") : null;
+            return exp instanceof Number ? ((Number) exp).longValue() * 1000 : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // -----------------------------
+    // Signature checks
+    // -----------------------------
+
+    /**
+     * @return true/false, or null if no secret is configured
+     */
+    private Boolean verifyHmac(byte[] signingInput, byte[] signature) {
+        if (hmacSecret == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(hmacSecret, "HmacSHA256"));
+            return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    /**
+     * @return true/false, or null if no matching public key could be obtained
+     */
+    private Boolean verifyWithJwks(String alg, String kid, byte[] signingInput, byte[] signature) {
+        PublicKey key = findKey(kid);
+        if (key == null) {
+            return null;
+        }
+        try {
+            // ES256 signatures are raw R||S (IEEE P1363), not DER
+            Signature verifier = Signature.getInstance(
+                "RS256".equals(alg) ? "SHA256withRSA" : "SHA256withECDSAinP1363Format");
+            verifier.initVerify(key);
+            verifier.update(signingInput);
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private PublicKey findKey(String kid) {
+        long now = System.currentTimeMillis();
+        Map<String, PublicKey> keys = jwks;
+
+        boolean stale = now - jwksLoadedAt > jwksTtlMs;
+        boolean unknownKid = kid != null && !keys.containsKey(kid);
+
+        if ((stale || unknownKid) && now - jwksLoadedAt > jwksMinRefreshMs) {
+            keys = refreshJwks();
+        }
+
+        if (kid != null) {
+            return keys.get(kid);
+        }
+        return keys.size() == 1 ? keys.values().iterator().next() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Map<String, PublicKey> refreshJwks() {
+        // Another thread may have refreshed while we waited for the lock
+        if (System.currentTimeMillis() - jwksLoadedAt <= jwksMinRefreshMs) {
+            return jwks;
+        }
+
+        Map<String, PublicKey> keys = new HashMap<>();
+        try {
+            Map<String, Object> body = restTemplate.getForObject(jwksUrl, Map.class);
+            Object list = body != null ? body.get("keys") : null;
+
+            if (list instanceof List<?> entries) {
+                for (Object entry : entries) {
+                    Map<String, Object> jwk = (Map<String, Object>) entry;
+                    PublicKey key = toPublicKey(jwk);
+                    if (key != null) {
+                        keys.put(String.valueOf(jwk.get("kid")), key);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load Supabase JWKS from {}: {}", jwksUrl, e.getMessage());
+            jwksLoadedAt = System.currentTimeMillis();
+            return jwks;
+        }
+
+        jwks = Map.copyOf(keys);
+        jwksLoadedAt = System.currentTimeMillis();
+        return jwks;
+    }
+
+    private PublicKey toPublicKey(Map<String, Object> jwk) throws GeneralSecurityException {
+        Object kty = jwk.get("kty");
+
+        if ("RSA".equals(kty)) {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                unsigned(jwk.get("n")),
+                unsigned(jwk.get("e"))
+            ));
+        }
+
+        if ("EC".equals(kty) && "P-256".equals(jwk.get("crv"))) {
+            AlgorithmParameters params = AlgorithmParameters.getInstance("EC");
+            params.init(new ECGenParameterSpec("secp256r1"));
+            ECParameterSpec spec = params.getParameterSpec(ECParameterSpec.class);
+
+            ECPoint point = new ECPoint(unsigned(jwk.get("x")), unsigned(jwk.get("y")));
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec));
+        }
+
+        return null;
+    }
+
+    // -----------------------------
+    // Claims
+    // -----------------------------
+
+    private void checkClaims(Map<String, Object> claims) {
+        long now = System.currentTimeMillis() / 1000;
+
+        Object exp = claims.get("exp");
+        if (!(exp instanceof Number) || ((Number) exp).longValue() + clockSkewSeconds < now) {
+            throw new RuntimeException("JWT token is invalid or expired");
+        }
+
+        Object nbf = claims.get("nbf");
+        if (nbf instanceof Number && ((Number) nbf).longValue() - clockSkewSeconds > now) {
+            throw new RuntimeException("JWT token is not valid yet");
+        }
+
+        if (!issuer.equals(claims.get("iss"))) {
+            throw new RuntimeException("JWT issuer does not match this project");
+        }
+
+        // aud is a string or an array of strings
+        Object aud = claims.get("aud");
+        boolean audienceMatches = aud instanceof List<?> list
+                ? list.contains(audience)
+                : audience.equals(aud);
+        if (!audienceMatches) {
+            throw new RuntimeException("JWT audience is not " + audience);
+        }
+
+        Object sub = claims.get("sub");
+        if (sub == null || sub.toString().isEmpty()) {
+            throw new RuntimeException("JWT does not contain a subject");
+        }
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    private Map<String, Object> decodeJson(String part) {
+        try {
+            return objectMapper.readValue(decode(part), JSON_MAP);
+        } catch (Exception e) {
+            throw new RuntimeException("JWT is malformed", e);
+        }
+    }
+
+    private byte[] decode(String part) {
+        try {
+            return BASE64_URL.decode(part);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("JWT is malformed", e);
+        }
+    }
+
+    private BigInteger unsigned(Object base64Url) {
+        return new BigInteger(1, BASE64_URL.decode(String.valueOf(base64Url)));
+    }
+}
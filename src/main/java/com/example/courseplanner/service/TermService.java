@@ -0,0 +1,86 @@
+package com.example.courseplanner.service;
+
+import com.example.courseplanner.entity.Term;
+import com.example.courseplanner.repository.TermRepository;
+import com.example.courseplanner.utils.SemesterUtil;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * =========================================================
+ * Term Service
+ *
+ * Answers "which semester is it?" without a DB round trip on
+ * every call. The current and enrolling rows of the `terms`
+ * table are re-read at most once per refresh interval.
+ *
+ * Semesters strictly older than the current term are closed:
+ * their CourseSys data will never change again.
+ * =========================================================
+ */
+@Service
+public class TermService {
+
+    private final TermRepository termRepository;
+    private final long refreshMs;
+
+    private volatile TermSnapshot snapshot;
+
+    public TermService(
+        TermRepository termRepository,
+        @Value("${terms.cache.refresh-seconds:300}") long refreshSeconds
+    ) {
+        this.termRepository = termRepository;
+        this.refreshMs = refreshSeconds * 1000;
+    }
+
+    /**
+     * @return Semester code of the current term (e.g. 1257), or null if not configured
+     */
+    public Long getCurrentSemesterCode() {
+        return snapshot().currentSemesterCode();
+    }
+
+    /**
+     * @return Semester code of the enrolling term (e.g. 1261), or null if none is open
+     */
+    public Long getEnrollingSemesterCode() {
+        return snapshot().enrollingSemesterCode();
+    }
+
+    /**
+     * Whether a semester has closed (older than the current term).
+     *
+     * Returns false when the current term is unknown, so callers
+     * treat the data as live rather than caching it forever.
+     *
+     * @param semesterCode Semester code (e.g. 1247)
+     */
+    public boolean isHistorical(long semesterCode) {
+        Long current = getCurrentSemesterCode();
+        return current != null && semesterCode < current;
+    }
+
+    private TermSnapshot snapshot() {
+        TermSnapshot s = snapshot;
+        long now = System.currentTimeMillis();
+
+        if (s == null || now - s.loadedAt() > refreshMs) {
+            s = new TermSnapshot(
+                termRepository.findByIsCurrentTrue().map(this::toSemesterCode).orElse(null),
+                termRepository.findByIsEnrollingTrue().map(this::toSemesterCode).orElse(null),
+                now
+            );
+            snapshot = s;
+        }
+
+        return s;
+    }
+
+    private Long toSemesterCode(Term term) {
+        return SemesterUtil.buildSemesterCode(term.getYear(), term.getTerm());
+    }
+
+    private record TermSnapshot(Long currentSemesterCode, Long enrollingSemesterCode, long loadedAt) { }
+}
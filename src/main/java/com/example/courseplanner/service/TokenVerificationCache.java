@@ -0,0 +1,143 @@
+package com.example.courseplanner.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * =========================================================
+ * Token Verification Cache
+ *
+ * Remembers Supabase's answer for a JWT so back-to-back requests
+ * with the same token (e.g. dashboard: /api/bookmarks then
+ * /api/bookmarks/offerings) pay for one remote verification.
+ *
+ * - Verified tokens: kept until the token's exp or the configured
+ *   maximum TTL, whichever comes first
+ * - Rejected tokens: kept for a short negative TTL so a client
+ *   retrying a dead token doesn't hammer Supabase
+ *
+ * Keys are SHA-256 hashes of the token; raw tokens are never held.
+ * Both maps are size-bounded (least recently used evicted first).
+ * =========================================================
+ */
+@Component
+public class TokenVerificationCache {
+
+    private final long maxTtlMs;
+    private final long negativeTtlMs;
+
+    private final Map<String, Verified> verified;
+    private final Map<String, Long> rejected;
+
+    public TokenVerificationCache(
+        @Value("${supabase.jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds,
+        @Value("${supabase.jwt.cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+        @Value("${supabase.jwt.cache.max-entries:10000}") int maxEntries
+    ) {
+        this.maxTtlMs = maxTtlSeconds * 1000;
+        this.negativeTtlMs = negativeTtlSeconds * 1000;
+        this.verified = lruMap(maxEntries);
+        this.rejected = lruMap(Math.max(1, maxEntries / 10));
+    }
+
+    /**
+     * @param token Raw JWT
+     * @return Cached user data, or null if not cached / expired
+     */
+    public Map<String, Object> getVerified(String token) {
+        String key = hash(token);
+        synchronized (verified) {
+            Verified entry = verified.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                verified.remove(key);
+                return null;
+            }
+            return entry.userData();
+        }
+    }
+
+    /**
+     * @param token Raw JWT
+     * @return true if Supabase rejected this token recently
+     */
+    public boolean isRejected(String token) {
+        String key = hash(token);
+        synchronized (rejected) {
+            Long expiresAt = rejected.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt < System.currentTimeMillis()) {
+                rejected.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remembers a successful verification.
+     *
+     * @param token Raw JWT
+     * @param userData Supabase user data
+     * @param tokenExpiresAtMs Token exp in epoch millis, or null if unknown
+     */
+    public void putVerified(String token, Map<String, Object> userData, Long tokenExpiresAtMs) {
+        long expiresAt = System.currentTimeMillis() + maxTtlMs;
+        if (tokenExpiresAtMs != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAtMs);
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        String key = hash(token);
+        synchronized (verified) {
+            verified.put(key, new Verified(Collections.unmodifiableMap(new HashMap<>(userData)), expiresAt));
+        }
+    }
+
+    /**
+     * Remembers that Supabase rejected a token.
+     *
+     * @param token Raw JWT
+     */
+    public void putRejected(String token) {
+        String key = hash(token);
+        synchronized (rejected) {
+            rejected.put(key, System.currentTimeMillis() + negativeTtlMs);
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static <V> Map<String, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record Verified(Map<String, Object> userData, long expiresAt) { }
+}
@@ -0,0 +1,105 @@
+package com.example.courseplanner.utils;
+
+/**
+ * Consecutive-failure circuit breaker.
+ *
+ * States:
+ *  - CLOSED    → calls go through; `failureThreshold` failures in a row open it
+ *  - OPEN      → calls are refused (fail fast) for `openMs`
+ *  - HALF_OPEN → one probe call is let through; success closes the
+ *                breaker, failure re-opens it for another `openMs`
+ *
+ * Example:
+ *  CircuitBreaker breaker = new CircuitBreaker(5, 30_000);
+ *  if (breaker.tryAcquire()) {
+ *      try { call(); breaker.onSuccess(); }
+ *      catch (Exception e) { breaker.onFailure(); }
+ *  }
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        if (failureThreshold <= 0 || openMs <= 0) {
+            throw new IllegalArgumentException("Failure threshold and open time must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * Asks to make a call. Every granted call must be followed by
+     * onSuccess() or onFailure().
+     *
+     * @return true if the call may proceed, false if it should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+
+            case OPEN:
+                if (System.currentTimeMillis() < openUntil) {
+                    return false;
+                }
+                // Open period over: let one probe through
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+
+            case HALF_OPEN:
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return true while calls are being rejected outright (open, open period not over)
+     */
+    public synchronized boolean isRejecting() {
+        return state == State.OPEN && System.currentTimeMillis() < openUntil;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openMs;
+        consecutiveFailures = 0;
+    }
+}
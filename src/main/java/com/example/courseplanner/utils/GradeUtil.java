@@ -0,0 +1,46 @@
+package com.example.courseplanner.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utility class for CourseDiggers grade data.
+ */
+public final class GradeUtil {
+
+    private GradeUtil() {
+        // utility class, no instances
+    }
+
+    /**
+     * Convert a CourseDiggers grade distribution (JSONB) to letter-grade counts.
+     *
+     * Non-grade keys (like "Median Grade", "Fail Rate") and non-numeric
+     * values are skipped.
+     *
+     * Example:
+     *  {"A+": 12, "A": 30, "Median Grade": "A-"} → {"A+": 12, "A": 30}
+     *
+     * @param raw grade distribution as stored, may be null
+     * @return letter grade → count (empty if raw is null)
+     */
+    public static Map<String, Long> letterGradeCounts(Map<String, Object> raw) {
+        Map<String, Long> distribution = new HashMap<>();
+
+        if (raw != null) {
+            for (Map.Entry<String, Object> entry : raw.entrySet()) {
+                String grade = entry.getKey();
+                Object value = entry.getValue();
+
+                // Skip non-grade keys (like "Median Grade", "Fail Rate")
+                if (grade.matches("^[A-F][+-]?$") || grade.equals("F")) {
+                    if (value instanceof Number) {
+                        distribution.put(grade, ((Number) value).longValue());
+                    }
+                }
+            }
+        }
+
+        return distribution;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.courseplanner.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request latency breakdown, kept in a ThreadLocal on the request thread.
+ *
+ * Instrumented code calls RequestTiming.record(...) after timing itself;
+ * outside a request (schedulers, executor threads) record() is a no-op.
+ * Each category keeps a count and total time. Individual spans are
+ * kept only for requests sampled for the trace log.
+ *
+ * Example:
+ *  long start = System.nanoTime();
+ *  ... call CourseSys ...
+ *  RequestTiming.record(RequestTiming.Category.COURSYS, start, key);
+ */
+public final class RequestTiming {
+
+    public enum Category {
+        DB("db"),
+        COURSYS("coursys"),
+        JWT("jwt"),
+        SERIALIZATION("ser");
+
+        private final String metricName;
+
+        Category(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * One timed operation, relative to the start of the request.
+     *
+     * @param category what kind of work
+     * @param startOffsetNanos start, measured from the request start
+     * @param durationNanos duration
+     * @param detail short description (query method, course key, ...)
+     */
+    public record Span(Category category, long startOffsetNanos, long durationNanos, String detail) { }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] counts = new long[Category.values().length];
+    private final long[] totalNanos = new long[Category.values().length];
+    private final List<Span> spans;
+    private long serializationStartNanos;
+
+    private RequestTiming(long startNanos, boolean keepSpans) {
+        this.startNanos = startNanos;
+        this.spans = keepSpans ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Starts collecting for the current thread's request.
+     *
+     * @param keepSpans true to keep every span (trace-sampled requests)
+     */
+    public static RequestTiming begin(boolean keepSpans) {
+        RequestTiming timing = new RequestTiming(System.nanoTime(), keepSpans);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stops collecting for the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the current request's timing, or null outside a request
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records an operation that started at `startNanos` (System.nanoTime()) and ends now.
+     */
+    public static void record(Category category, long startNanos, Object detail) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(category, startNanos, System.nanoTime() - startNanos, detail);
+        }
+    }
+
+    /**
+     * @param detail converted to a string only if spans are kept
+     */
+    public void add(Category category, long spanStartNanos, long durationNanos, Object detail) {
+        counts[category.ordinal()]++;
+        totalNanos[category.ordinal()] += durationNanos;
+        if (spans != null) {
+            spans.add(new Span(category, spanStartNanos - startNanos, durationNanos,
+                    detail != null ? detail.toString() : null));
+        }
+    }
+
+    /**
+     * Marks the point where the controller returned and the body is being written.
+     */
+    public static void markSerializationStart() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStartNanos == 0) {
+            timing.serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return System.nanoTime() when body writing started, or 0 if no body was written
+     */
+    public long serializationStartNanos() {
+        return serializationStartNanos;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long count(Category category) {
+        return counts[category.ordinal()];
+    }
+
+    public long totalNanos(Category category) {
+        return totalNanos[category.ordinal()];
+    }
+
+    public boolean keepsSpans() {
+        return spans != null;
+    }
+
+    /**
+     * @return spans in recording order (empty unless keepsSpans())
+     */
+    public List<Span> spans() {
+        return spans != null ? spans : List.of();
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.courseplanner.utils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Utility class for working with SFU semesters.
  *
@@ -16,6 +21,11 @@ package com.example.courseplanner.utils;
  */
 public final class SemesterUtil {
 
+    // "2025 Fall", "2025fa"
+    private static final Pattern LABEL_YEAR_FIRST = Pattern.compile("(\\d{4})\\s*([a-z]+)");
+    // "Fall 2025"
+    private static final Pattern LABEL_TERM_FIRST = Pattern.compile("([a-z]+)\\s*(\\d{4})");
+
     private SemesterUtil() {
         // utility class, no instances
     }
@@ -87,6 +97,74 @@ public final class SemesterUtil {
         }
     }
 
+    /**
+     * Walk backwards from a starting semester.
+     *
+     * Example:
+     *  year=2026, term=spring, count=4
+     *  → [Spring 2026, Fall 2025, Summer 2025, Spring 2025]
+     *
+     * @param year   starting year (e.g. 2026)
+     * @param term   starting term ("spring", "summer", "fall")
+     * @param count  number of semesters to return (including the start)
+     * @return semesters ordered newest → oldest
+     */
+    public static List<Prev> recentSemesters(long year, String term, int count) {
+        List<Prev> semesters = new ArrayList<>(count);
+        if (count <= 0) {
+            return semesters;
+        }
+
+        term = normalizeTerm(term);
+        Prev current = new Prev(year, term, buildSemesterCode(year, term));
+
+        for (int i = 0; i < count; i++) {
+            semesters.add(current);
+            current = previous(current.year(), current.term());
+        }
+
+        return semesters;
+    }
+
+    /**
+     * Number of semesters covered by a graph range.
+     *
+     *  "1yr" → 3, "3yr" → 9, "5yr" (or anything else) → 15
+     */
+    public static int semesterCountForRange(String range) {
+        switch (range) {
+            case "1yr":
+                return 3;
+            case "3yr":
+                return 9;
+            case "5yr":
+            default:
+                return 15;
+        }
+    }
+
+    /**
+     * Semester code of the term before the given one.
+     *
+     * Example:
+     *  1261 (Spring 2026) → 1257 (Fall 2025)
+     *  1257 (Fall 2025)   → 1254 (Summer 2025)
+     *
+     * @param semesterCode  e.g. 1261
+     * @return previous semester code
+     */
+    public static long previousSemesterCode(long semesterCode) {
+        switch ((int) (semesterCode % 10)) {
+            case 1:
+                return (semesterCode / 10 - 1) * 10 + 7;
+            case 4:
+            case 7:
+                return semesterCode - 3;
+            default:
+                throw new IllegalArgumentException("Invalid semester code: " + semesterCode);
+        }
+    }
+
     /**
      * Build SFU semester code.
      *
@@ -172,4 +250,51 @@ public final class SemesterUtil {
         return new DecodedSemester(year, term);
     }
     public record DecodedSemester(long year, String term) { }
+
+    /**
+     * Parse a semester label as shown by CourseSys into a semester code.
+     *
+     * Accepted forms (case-insensitive):
+     *  "1257"        → 1257
+     *  "Fall 2025"   → 1257
+     *  "2025 Fall"   → 1257
+     *  "2025fa"      → 1257 (CourseSys URL slug; sp/su/fa)
+     *
+     * @param label  semester label
+     * @return semester code
+     * @throws IllegalArgumentException if the label is not recognised
+     */
+    public static long parseSemesterLabel(String label) {
+        if (label == null) {
+            throw new IllegalArgumentException("Semester label cannot be null");
+        }
+
+        String s = label.trim().toLowerCase();
+
+        if (s.matches("\\d{4}")) {
+            return Long.parseLong(s);
+        }
+
+        Matcher m = LABEL_YEAR_FIRST.matcher(s);
+        if (m.matches()) {
+            return buildSemesterCode(Long.parseLong(m.group(1)), termFromPrefix(m.group(2), label));
+        }
+
+        m = LABEL_TERM_FIRST.matcher(s);
+        if (m.matches()) {
+            return buildSemesterCode(Long.parseLong(m.group(2)), termFromPrefix(m.group(1), label));
+        }
+
+        throw new IllegalArgumentException("Invalid semester label: " + label);
+    }
+
+    /**
+     * "sp"/"spring" → "spring", "su"/"summer" → "summer", "fa"/"fall" → "fall"
+     */
+    private static String termFromPrefix(String word, String label) {
+        if (word.startsWith("sp")) return "spring";
+        if (word.startsWith("su")) return "summer";
+        if (word.startsWith("fa")) return "fall";
+        throw new IllegalArgumentException("Invalid semester label: " + label);
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.courseplanner.utils;
+
+/**
+ * Blocking token-bucket rate limiter.
+ *
+ * Tokens refill continuously at `ratePerSecond` up to `burst`.
+ * acquire(n) waits until n tokens are available, then takes them.
+ *
+ * Example:
+ *  TokenBucket bucket = new TokenBucket(2.0, 4);
+ *  bucket.acquire(1);   // at most ~2 calls per second, bursts of 4
+ */
+public final class TokenBucket {
+
+    private final double ratePerSecond;
+    private final double burst;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes `permits` tokens, waiting for them if necessary.
+     * More than `burst` permits are taken in burst-sized chunks, so the
+     * long-run rate never exceeds ratePerSecond.
+     *
+     * @param permits  tokens to take
+     * @return milliseconds spent waiting
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized long acquire(int permits) throws InterruptedException {
+        long waitedMs = 0;
+        double remaining = permits;
+
+        while (remaining > 0) {
+            double needed = Math.min(remaining, burst);
+
+            refill();
+            while (tokens < needed) {
+                long sleepMs = (long) Math.ceil((needed - tokens) * 1000 / ratePerSecond);
+                wait(Math.max(1, sleepMs));
+                waitedMs += sleepMs;
+                refill();
+            }
+
+            tokens -= needed;
+            remaining -= needed;
+        }
+        return waitedMs;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * ratePerSecond);
+        lastRefillNanos = now;
+    }
+}
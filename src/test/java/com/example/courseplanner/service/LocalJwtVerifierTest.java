@@ -0,0 +1,302 @@
+package com.example.courseplanner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LocalJwtVerifier: signature, algorithm, time and issuer/audience checks,
+ * and the rate-limited JWKS refresh on an unknown key id.
+ */
+class LocalJwtVerifierTest {
+
+    private static final String PROJECT_URL = "https://project.supabase.co";
+    private static final String ISSUER = PROJECT_URL + "/auth/v1";
+    private static final String SECRET = "test-secret-with-enough-bytes-for-hs256";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private KeyPair rsaKeys;
+    private Map<String, Object> jwksBody;
+    private AtomicInteger jwksCalls;
+    private LocalJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        rsaKeys = generator.generateKeyPair();
+
+        RSAPublicKey publicKey = (RSAPublicKey) rsaKeys.getPublic();
+        Map<String, Object> jwk = new HashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("kid", "key-1");
+        jwk.put("n", unsignedBase64(publicKey.getModulus()));
+        jwk.put("e", unsignedBase64(publicKey.getPublicExponent()));
+        jwksBody = Map.of("keys", List.of(jwk));
+
+        jwksCalls = new AtomicInteger();
+        RestTemplate jwksEndpoint = new RestTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+                jwksCalls.incrementAndGet();
+                return (T) jwksBody;
+            }
+        };
+
+        verifier = new LocalJwtVerifier(jwksEndpoint, objectMapper, PROJECT_URL, SECRET, 30, 600, "authenticated");
+    }
+
+    // -----------------------------
+    // Signatures and algorithms
+    // -----------------------------
+
+    @Test
+    void acceptsValidHs256Token() {
+        Optional<Map<String, Object>> claims = verifier.verify(hs256(validClaims(), SECRET));
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get()).containsEntry("sub", "user-1");
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        String forged = hs256(validClaims(), "some-other-secret-of-similar-length!!");
+
+        assertThatThrownBy(() -> verifier.verify(forged))
+                .hasMessageContaining("signature is invalid");
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String[] parts = hs256(validClaims(), SECRET).split("\\.");
+        Map<String, Object> tampered = validClaims();
+        tampered.put("sub", "someone-else");
+        String token = parts[0] + "." + encodeJson(tampered) + "." + parts[2];
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .hasMessageContaining("signature is invalid");
+    }
+
+    @Test
+    void rejectsAlgNone() {
+        String token = encodeJson(Map.of("alg", "none", "typ", "JWT")) + "." + encodeJson(validClaims()) + ".c2ln";
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .hasMessageContaining("not signed");
+    }
+
+    @Test
+    void rejectsMissingAlg() {
+        String token = encodeJson(Map.of("typ", "JWT")) + "." + encodeJson(validClaims()) + ".c2ln";
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .hasMessageContaining("not signed");
+    }
+
+    @Test
+    void leavesUnknownAlgToTheRemoteCheck() {
+        String token = encodeJson(Map.of("alg", "HS512", "typ", "JWT")) + "." + encodeJson(validClaims()) + ".c2ln";
+
+        assertThat(verifier.verify(token)).isEmpty();
+    }
+
+    // -----------------------------
+    // Time claims
+    // -----------------------------
+
+    @Test
+    void rejectsExpiredToken() {
+        Map<String, Object> claims = validClaims();
+        claims.put("exp", now() - 120);
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void acceptsTokenExpiredWithinClockSkew() {
+        Map<String, Object> claims = validClaims();
+        claims.put("exp", now() - 10);
+
+        assertThat(verifier.verify(hs256(claims, SECRET))).isPresent();
+    }
+
+    @Test
+    void rejectsTokenWithoutExp() {
+        Map<String, Object> claims = validClaims();
+        claims.remove("exp");
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void rejectsTokenNotValidYet() {
+        Map<String, Object> claims = validClaims();
+        claims.put("nbf", now() + 300);
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("not valid yet");
+    }
+
+    // -----------------------------
+    // Issuer / audience
+    // -----------------------------
+
+    @Test
+    void rejectsWrongIssuer() {
+        Map<String, Object> claims = validClaims();
+        claims.put("iss", "https://other-project.supabase.co/auth/v1");
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("issuer");
+    }
+
+    @Test
+    void rejectsWrongAudience() {
+        Map<String, Object> claims = validClaims();
+        claims.put("aud", "anon");
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("audience");
+    }
+
+    @Test
+    void rejectsMissingAudience() {
+        Map<String, Object> claims = validClaims();
+        claims.remove("aud");
+
+        assertThatThrownBy(() -> verifier.verify(hs256(claims, SECRET)))
+                .hasMessageContaining("audience");
+    }
+
+    @Test
+    void acceptsAudienceArrayContainingTheUserAudience() {
+        Map<String, Object> claims = validClaims();
+        claims.put("aud", List.of("other", "authenticated"));
+
+        assertThat(verifier.verify(hs256(claims, SECRET))).isPresent();
+    }
+
+    // -----------------------------
+    // JWKS (RS256)
+    // -----------------------------
+
+    @Test
+    void acceptsRs256TokenFromJwks() {
+        assertThat(verifier.verify(rs256(validClaims(), "key-1"))).isPresent();
+        assertThat(jwksCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownKidRefreshesJwksAtMostOncePerInterval() {
+        // First unknown kid: one refresh, key still unknown → left to the remote check
+        assertThat(verifier.verify(rs256(validClaims(), "rotated-1"))).isEmpty();
+        assertThat(jwksCalls.get()).isEqualTo(1);
+
+        // More unknown kids right after: no further JWKS calls
+        assertThat(verifier.verify(rs256(validClaims(), "rotated-2"))).isEmpty();
+        assertThat(verifier.verify(rs256(validClaims(), "rotated-3"))).isEmpty();
+        assertThat(jwksCalls.get()).isEqualTo(1);
+
+        // Known kid is served from the cached keys
+        assertThat(verifier.verify(rs256(validClaims(), "key-1"))).isPresent();
+        assertThat(jwksCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsRs256TokenSignedWithAnotherKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        rsaKeys = generator.generateKeyPair();   // sign with a key the JWKS doesn't have
+
+        String token = rs256(validClaims(), "key-1");
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .hasMessageContaining("signature is invalid");
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    private Map<String, Object> validClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "user-1");
+        claims.put("iss", ISSUER);
+        claims.put("aud", "authenticated");
+        claims.put("role", "authenticated");
+        claims.put("exp", now() + 3600);
+        claims.put("iat", now());
+        return claims;
+    }
+
+    private String hs256(Map<String, Object> claims, String secret) {
+        String signingInput = encodeJson(Map.of("alg", "HS256", "typ", "JWT")) + "." + encodeJson(claims);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return signingInput + "." + BASE64_URL.encodeToString(
+                    mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String rs256(Map<String, Object> claims, String kid) {
+        String signingInput = encodeJson(Map.of("alg", "RS256", "typ", "JWT", "kid", kid)) + "." + encodeJson(claims);
+        try {
+            Signature signer = Signature.getInstance("SHA256withRSA");
+            signer.initSign(rsaKeys.getPrivate());
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64_URL.encodeToString(signer.sign());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String encodeJson(Map<String, Object> value) {
+        try {
+            return BASE64_URL.encodeToString(objectMapper.writeValueAsBytes(value));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String unsignedBase64(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            bytes = trimmed;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+}